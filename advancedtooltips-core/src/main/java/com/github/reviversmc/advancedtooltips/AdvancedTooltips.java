@@ -19,6 +19,8 @@ package com.github.reviversmc.advancedtooltips;
 
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.rendering.v1.TooltipComponentCallback;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.block.Block;
 import net.minecraft.block.DispenserBlock;
@@ -26,27 +28,35 @@ import net.minecraft.block.HopperBlock;
 import net.minecraft.block.ShulkerBoxBlock;
 import net.minecraft.entity.effect.StatusEffect;
 import net.minecraft.entity.effect.StatusEffectInstance;
-import net.minecraft.inventory.Inventories;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
 import net.minecraft.tag.TagKey;
 import net.minecraft.text.Text;
 import net.minecraft.util.DyeColor;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.collection.DefaultedList;
 import net.minecraft.util.registry.Registry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
 
 import com.github.reviversmc.advancedtooltips.api.AdvancedTooltipsEntrypoint;
-import com.github.reviversmc.advancedtooltips.api.InventoryProvider;
+import com.github.reviversmc.advancedtooltips.api.InventoryProviderManager;
+import com.github.reviversmc.advancedtooltips.api.InventoryView;
+import com.github.reviversmc.advancedtooltips.api.InventoryViewProvider;
+import com.github.reviversmc.advancedtooltips.tooltip.ContainerContentsIndex;
 import com.github.reviversmc.advancedtooltips.tooltip.ConvertibleTooltipData;
+import com.github.reviversmc.advancedtooltips.tooltip.EntityTooltipComponent;
+import com.github.reviversmc.advancedtooltips.tooltip.InventoryTooltipComponent;
+import com.github.reviversmc.advancedtooltips.tooltip.StaticTooltipComponents;
+import com.github.reviversmc.advancedtooltips.tooltip.TooltipFrameBudget;
+import com.github.reviversmc.advancedtooltips.tooltip.TooltipLineCache;
 
 import io.github.queerbric.inspecio.api.InspecioEntrypoint;
 
@@ -56,10 +66,13 @@ import java.util.function.Consumer;
 public class AdvancedTooltips implements ClientModInitializer {
 	public static final String NAMESPACE = "advancedtooltips";
 	private static final Logger LOGGER = LogManager.getLogger(NAMESPACE);
-	private static AdvancedTooltipsConfig config = AdvancedTooltipsConfig.defaultConfig();
+	private static volatile AdvancedTooltipsConfig config = AdvancedTooltipsConfig.defaultConfig();
 
 	// TODO: Switch to Client Tag API: https://github.com/FabricMC/fabric/pull/2308
 	public static final TagKey<Item> HIDDEN_EFFECTS_TAG = TagKey.of(Registry.ITEM_KEY, new Identifier(NAMESPACE, "hidden_effects"));
+	/**
+	 * Items whose effects are hidden regardless of tags, {@link HiddenEffectItems#rebuild()} must be called once changed.
+	 */
 	public static List<Item> hiddenEffectsItems = List.of(Items.SUSPICIOUS_STEW);
 
 
@@ -67,7 +80,7 @@ public class AdvancedTooltips implements ClientModInitializer {
 	public void onInitializeClient() {
 		reloadConfig();
 
-		InventoryProvider.register((stack, config) -> {
+		InventoryProviderManager.registerBuiltin(InventoryViewProvider.dependingOnNbt((stack, config) -> {
 			if (config != null && config.isEnabled() && stack.getItem() instanceof BlockItem blockItem) {
 				DyeColor color = null;
 				if (blockItem.getBlock() instanceof ShulkerBoxBlock shulkerBoxBlock && ((AdvancedTooltipsConfig.ShulkerBoxConfig) config).hasColor())
@@ -76,16 +89,15 @@ public class AdvancedTooltips implements ClientModInitializer {
 				var nbt = BlockItem.getBlockEntityNbtFromStack(stack);
 				if (nbt == null) return null;
 
-				DefaultedList<ItemStack> inventory = DefaultedList.ofSize(getInvSizeFor(stack), ItemStack.EMPTY);
-				Inventories.readNbt(nbt, inventory);
-				if (inventory.stream().allMatch(ItemStack::isEmpty))
+				var inventory = InventoryView.ofBlockEntityNbt(nbt, getInvSizeFor(stack), color);
+				if (inventory.isEmpty())
 					return null;
 
-				return new InventoryProvider.Context(inventory, color);
+				return inventory;
 			}
 
 			return null;
-		});
+		}, BlockItem.BLOCK_ENTITY_TAG_KEY));
 
 		TooltipComponentCallback.EVENT.register(data -> {
 			if (data instanceof ConvertibleTooltipData convertible) {
@@ -94,6 +106,40 @@ public class AdvancedTooltips implements ClientModInitializer {
 			return null;
 		});
 
+		ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(new SimpleSynchronousResourceReloadListener() {
+			@Override
+			public Identifier getFabricId() {
+				return new Identifier(NAMESPACE, "entity_previews");
+			}
+
+			@Override
+			public void reload(ResourceManager manager) {
+				EntityTooltipComponent.clearPreviewCache();
+			}
+		});
+		ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(new SimpleSynchronousResourceReloadListener() {
+			@Override
+			public Identifier getFabricId() {
+				return new Identifier(NAMESPACE, "tooltip_lines");
+			}
+
+			@Override
+			public void reload(ResourceManager manager) {
+				TooltipLineCache.clear();
+			}
+		});
+		ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(new SimpleSynchronousResourceReloadListener() {
+			@Override
+			public Identifier getFabricId() {
+				return new Identifier(NAMESPACE, "hidden_effects");
+			}
+
+			@Override
+			public void reload(ResourceManager manager) {
+				HiddenEffectItems.load(manager);
+			}
+		});
+
 		AdvancedTooltipsCommand.init();
 
 		List<AdvancedTooltipsEntrypoint> entrypoints = FabricLoader.getInstance().getEntrypoints("advancedtooltips", AdvancedTooltipsEntrypoint.class);
@@ -144,12 +190,33 @@ public class AdvancedTooltips implements ClientModInitializer {
 		LOGGER.warn("[Advanced Tooltips] " + info, throwable);
 	}
 
+	/**
+	 * Returns the current configuration.
+	 * <p>
+	 * The configuration may be read from any thread, it is only modified on the render thread, one option at a time.
+	 * Reloading it publishes a new configuration instance.
+	 *
+	 * @return the configuration
+	 */
 	public static AdvancedTooltipsConfig getConfig() {
 		return config;
 	}
 
 	static void reloadConfig() {
 		config = AdvancedTooltipsConfig.load();
+		onConfigChanged();
+	}
+
+	/**
+	 * Clears the caches which depend on the configuration.
+	 */
+	static void onConfigChanged() {
+		InventoryProviderManager.clearCaches();
+		InventoryTooltipComponent.clearNestedCache();
+		ContainerContentsIndex.clear();
+		StaticTooltipComponents.clear();
+		EntityTooltipComponent.invalidatePreviewCache();
+		TooltipFrameBudget.reset();
 	}
 
 	static Consumer<String> onConfigError(String path) {
@@ -224,13 +291,16 @@ public class AdvancedTooltips implements ClientModInitializer {
 	}
 
 	public static @Nullable StatusEffectInstance getRawEffectFromTag(NbtCompound tag, String tagKey) {
+		var effect = getEffectFromTag(tag, tagKey);
+		return effect == null ? null : new StatusEffectInstance(effect, 200, 0);
+	}
+
+	public static @Nullable StatusEffect getEffectFromTag(NbtCompound tag, String tagKey) {
 		if (tag == null) {
 			return null;
 		}
 		if (tag.contains(tagKey, NbtElement.INT_TYPE)) {
-			var effect = StatusEffect.byRawId(tag.getInt(tagKey));
-			if (effect != null)
-				return new StatusEffectInstance(effect, 200, 0);
+			return StatusEffect.byRawId(tag.getInt(tagKey));
 		}
 		return null;
 	}
@@ -17,6 +17,8 @@
 
 package com.github.reviversmc.advancedtooltips;
 
+import com.github.reviversmc.advancedtooltips.api.InventoryProviderManager;
+import com.github.reviversmc.advancedtooltips.tooltip.CompoundTooltipComponent;
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.BoolArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
@@ -66,6 +68,21 @@ public final class AdvancedTooltipsCommand {
 							.executes(onGetter("containers/campfire", getter(cfg -> cfg.getContainersConfig().isCampfireEnabled())))
 							.then(argument("value", BoolArgumentType.bool())
 									.executes(onBooleanSetter("containers/campfire", setter((cfg, val) -> cfg.getContainersConfig().setCampfire(val))))))
+					.then(literal("summary_threshold")
+							.executes(onGetter("containers/summary_threshold", getter(cfg -> cfg.getContainersConfig().getSummaryThreshold())))
+							.then(argument("value", IntegerArgumentType.integer(0))
+									.executes(onIntegerSetter("containers/summary_threshold",
+											setter((cfg, val) -> cfg.getContainersConfig().setSummaryThreshold(val))))))
+					.then(literal("nested_depth")
+							.executes(onGetter("containers/nested_depth", getter(cfg -> cfg.getContainersConfig().getNestedDepth())))
+							.then(argument("value", IntegerArgumentType.integer(0, AdvancedTooltipsConfig.ContainersConfig.MAX_NESTED_DEPTH))
+									.executes(onIntegerSetter("containers/nested_depth",
+											setter((cfg, val) -> cfg.getContainersConfig().setNestedDepth(val))))))
+					.then(literal("highlight_holders")
+							.executes(onGetter("containers/highlight_holders", getter(cfg -> cfg.getContainersConfig().hasHighlightHolders())))
+							.then(argument("value", BoolArgumentType.bool())
+									.executes(onBooleanSetter("containers/highlight_holders",
+											setter((cfg, val) -> cfg.getContainersConfig().setHighlightHolders(val))))))
 					.then(initContainer("storage", cfg -> cfg.getContainersConfig().getStorageConfig()))
 					.then(initContainer("shulker_box", cfg -> cfg.getContainersConfig().getShulkerBoxConfig())
 							.then(literal("color")
@@ -119,6 +136,14 @@ public final class AdvancedTooltipsCommand {
 							.executes(onGetter("entities/pufferfish_puff_state", getter(cfg -> cfg.getEntitiesConfig().getPufferFishPuffState())))
 							.then(argument("value", IntegerArgumentType.integer(0, 2))
 									.executes(onIntegerSetter("entities/pufferfish_puff_state", setter((cfg, val) -> cfg.getEntitiesConfig().setPufferFishPuffState(val))))))
+					.then(literal("preview_refresh_rate")
+							.executes(onGetter("entities/preview_refresh_rate", getter(cfg -> cfg.getEntitiesConfig().getPreviewRefreshRate())))
+							.then(argument("value", IntegerArgumentType.integer(0, 120))
+									.executes(onIntegerSetter("entities/preview_refresh_rate", setter((cfg, val) -> cfg.getEntitiesConfig().setPreviewRefreshRate(val))))))
+					.then(literal("persistent_previews")
+							.executes(onGetter("entities/persistent_previews", getter(cfg -> cfg.getEntitiesConfig().hasPersistentPreviews())))
+							.then(argument("value", BoolArgumentType.bool())
+									.executes(onBooleanSetter("entities/persistent_previews", setter((cfg, val) -> cfg.getEntitiesConfig().setPersistentPreviews(val))))))
 			).then(literal("filled_map")
 					.executes(onGetter("filled_map", getter(cfg -> cfg.getFilledMapConfig().isEnabled())))
 					.then(argument("value", BoolArgumentType.bool())
@@ -144,6 +169,14 @@ public final class AdvancedTooltipsCommand {
 					.executes(onGetter("sign", getter(AdvancedTooltipsConfig::getSignTooltipMode)))
 					.then(argument("value", SignTooltipMode.SignArgumentType.signTooltipMode())
 							.executes(AdvancedTooltipsCommand::onSetSign))
+			).then(literal("frame_budget")
+					.executes(onGetter("frame_budget", getter(AdvancedTooltipsConfig::getFrameBudget)))
+					.then(argument("value", IntegerArgumentType.integer(0, 50))
+							.executes(onIntegerSetter("frame_budget", setter(AdvancedTooltipsConfig::setFrameBudget))))
+			).then(literal("dwell_time")
+					.executes(onGetter("dwell_time", getter(AdvancedTooltipsConfig::getDwellTime)))
+					.then(argument("value", IntegerArgumentType.integer(0, 1000))
+							.executes(onIntegerSetter("dwell_time", setter(AdvancedTooltipsConfig::setDwellTime))))
 			).then(literal("advanced_tooltips")
 					.then(literal("repair_cost")
 							.executes(onGetter("advanced_tooltips/repair_cost", getter(cfg -> cfg.getAdvancedConfig().hasRepairCost())))
@@ -161,6 +194,8 @@ public final class AdvancedTooltipsCommand {
 				literal("advancedtooltips")
 						.executes(onAdvancedTooltipsCommand(literalSubCommand.build()))
 						.then(literalSubCommand)
+						.then(literal("providers").executes(AdvancedTooltipsCommand::onProviders))
+						.then(literal("compounds").executes(AdvancedTooltipsCommand::onCompounds))
 			);
 		});
 	}
@@ -196,7 +231,12 @@ public final class AdvancedTooltipsCommand {
 				.then(literal("spin")
 						.executes(onGetter(prefix + "/spin", () -> containerGetter.apply(AdvancedTooltips.getConfig()).shouldSpin()))
 						.then(argument("value", BoolArgumentType.bool())
-								.executes(onBooleanSetter(prefix + "/spin", val -> containerGetter.apply(AdvancedTooltips.getConfig()).setSpin(val)))));
+								.executes(onBooleanSetter(prefix + "/spin", val -> containerGetter.apply(AdvancedTooltips.getConfig()).setSpin(val)))))
+				.then(literal("quality")
+						.executes(onGetter(prefix + "/quality", () -> containerGetter.apply(AdvancedTooltips.getConfig()).getQuality().getName()))
+						.then(argument("value", EntityRenderQuality.EntityRenderQualityArgumentType.entityRenderQuality())
+								.executes(ctx -> onSetEntityRenderQuality(ctx, prefix + "/quality",
+										val -> containerGetter.apply(AdvancedTooltips.getConfig()).setQuality(val)))));
 	}
 
 	private static Text formatBoolean(boolean bool) {
@@ -251,6 +291,14 @@ public final class AdvancedTooltipsCommand {
 		return 0;
 	}
 
+	private static int onSetEntityRenderQuality(CommandContext<FabricClientCommandSource> context, String path, Consumer<EntityRenderQuality> setter) {
+		var value = EntityRenderQuality.EntityRenderQualityArgumentType.getEntityRenderQuality(context, "value");
+		setter.accept(value);
+		AdvancedTooltips.getConfig().save();
+		context.getSource().sendFeedback(prefix(path).append(Text.literal(value.getName()).formatted(Formatting.WHITE)));
+		return 0;
+	}
+
 	private static int onSetHiddenEffect(CommandContext<FabricClientCommandSource> context) {
 		var value = HiddenEffectMode.HiddenEffectType.getHiddenEffectMode(context, "value");
 		var config = AdvancedTooltips.getConfig().getEffectsConfig();
@@ -260,6 +308,35 @@ public final class AdvancedTooltipsCommand {
 		return 0;
 	}
 
+	private static int onProviders(CommandContext<FabricClientCommandSource> context) {
+		var msg = Text.literal("Inventory providers").formatted(Formatting.GOLD);
+		for (var monitor : InventoryProviderManager.getMonitors()) {
+			long disabledTime = monitor.getDisabledTime();
+			msg.append(Text.literal("\n- ").formatted(Formatting.GRAY))
+					.append(Text.literal(monitor.getName()).formatted(Formatting.GOLD))
+					.append(Text.literal(" (" + monitor.getModId() + ")\n  ").formatted(Formatting.GRAY))
+					.append(Text.literal(String.format("calls: %d, failures: %d, p50: %.2fms, p95: %.2fms, p99: %.2fms, ",
+							monitor.getCallCount(), monitor.getFailureCount(),
+							monitor.getLatencyPercentile(.5) / 1_000_000.0,
+							monitor.getLatencyPercentile(.95) / 1_000_000.0,
+							monitor.getLatencyPercentile(.99) / 1_000_000.0)).formatted(Formatting.WHITE))
+					.append(disabledTime == 0 ? Text.literal("enabled").formatted(Formatting.GREEN)
+							: Text.literal("disabled for " + (disabledTime + 999) / 1000 + "s").formatted(Formatting.RED));
+		}
+		context.getSource().sendFeedback(msg);
+		return 0;
+	}
+
+	private static int onCompounds(CommandContext<FabricClientCommandSource> context) {
+		long created = CompoundTooltipComponent.getCreatedCount();
+		long reused = CompoundTooltipComponent.getReusedCount();
+		long total = created + reused;
+		context.getSource().sendFeedback(Text.literal("Compound tooltips").formatted(Formatting.GOLD)
+				.append(Text.literal(String.format("\n  created: %d, reused: %d (%.1f%%)",
+						created, reused, total == 0 ? 0.0 : reused * 100.0 / total)).formatted(Formatting.WHITE)));
+		return 0;
+	}
+
 	private static MutableText prefix(String path) {
 		return Text.literal(path).formatted(Formatting.GOLD).append(Text.literal(": ").formatted(Formatting.GRAY));
 	}
@@ -25,7 +25,10 @@ import com.mojang.serialization.Codec;
 import com.mojang.serialization.JsonOps;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import net.minecraft.block.*;
+import net.minecraft.entity.EntityType;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.registry.Registry;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
@@ -34,6 +37,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -53,6 +57,8 @@ public class AdvancedTooltipsConfig {
 	public static final boolean DEFAULT_BANNER_PATTERN = true;
 	public static final JukeboxTooltipMode DEFAULT_JUKEBOX_TOOLTIP_MODE = JukeboxTooltipMode.FANCY;
 	public static final SignTooltipMode DEFAULT_SIGN_TOOLTIP_MODE = SignTooltipMode.FANCY;
+	public static final int DEFAULT_FRAME_BUDGET = 4;
+	public static final int DEFAULT_DWELL_TIME = 100;
 
 	public static final Codec<AdvancedTooltipsConfig> CODEC = RecordCodecBuilder.create(instance -> instance.group(
 			configEntry("armor", DEFAULT_ARMOR, AdvancedTooltipsConfig::hasArmor),
@@ -64,7 +70,9 @@ public class AdvancedTooltipsConfig {
 			configEntry(FoodConfig.CODEC, "food", FoodConfig::defaultConfig, AdvancedTooltipsConfig::getFoodConfig),
 			configEntry(JukeboxTooltipMode.CODEC, "jukebox", () -> DEFAULT_JUKEBOX_TOOLTIP_MODE, AdvancedTooltipsConfig::getJukeboxTooltipMode),
 			configEntry(SignTooltipMode.CODEC, "sign", () -> DEFAULT_SIGN_TOOLTIP_MODE, AdvancedTooltipsConfig::getSignTooltipMode),
-			configEntry(AdvancedConfig.CODEC, "advanced_tooltips", AdvancedConfig::defaultConfig, AdvancedTooltipsConfig::getAdvancedConfig)
+			configEntry(AdvancedConfig.CODEC, "advanced_tooltips", AdvancedConfig::defaultConfig, AdvancedTooltipsConfig::getAdvancedConfig),
+			configEntry(Codec.INT, "frame_budget", () -> DEFAULT_FRAME_BUDGET, AdvancedTooltipsConfig::getFrameBudget),
+			configEntry(Codec.INT, "dwell_time", () -> DEFAULT_DWELL_TIME, AdvancedTooltipsConfig::getDwellTime)
 	).apply(instance, AdvancedTooltipsConfig::new));
 
 	static boolean shouldSaveConfigAfterLoad = false;
@@ -91,6 +99,8 @@ public class AdvancedTooltipsConfig {
 	private JukeboxTooltipMode jukeboxTooltipMode;
 	private SignTooltipMode signTooltipMode;
 	private final AdvancedConfig advancedConfig;
+	private int frameBudget;
+	private int dwellTime;
 
 	public AdvancedTooltipsConfig(boolean armor, boolean bannerPattern,
 	                      ContainersConfig containersConfig,
@@ -100,7 +110,9 @@ public class AdvancedTooltipsConfig {
 	                      FoodConfig foodConfig,
 	                      JukeboxTooltipMode jukeboxTooltipMode,
 	                      SignTooltipMode signTooltipMode,
-	                      AdvancedConfig advancedTooltipsConfig) {
+	                      AdvancedConfig advancedTooltipsConfig,
+	                      int frameBudget,
+	                      int dwellTime) {
 		this.armor = armor;
 		this.bannerPattern = bannerPattern;
 		this.containersConfig = containersConfig;
@@ -111,6 +123,8 @@ public class AdvancedTooltipsConfig {
 		this.jukeboxTooltipMode = jukeboxTooltipMode;
 		this.signTooltipMode = signTooltipMode;
 		this.advancedConfig = advancedTooltipsConfig;
+		this.setFrameBudget(frameBudget);
+		this.setDwellTime(dwellTime);
 	}
 
 	public boolean hasArmor() {
@@ -169,6 +183,37 @@ public class AdvancedTooltipsConfig {
 		return this.advancedConfig;
 	}
 
+	/**
+	 * Returns the time tooltips may take to draw each frame before they are stepped down to less detailed modes.
+	 * <p>
+	 * {@code 0} disables the frame budget, tooltips are then always drawn as configured.
+	 *
+	 * @return the frame budget in milliseconds
+	 */
+	public int getFrameBudget() {
+		return this.frameBudget;
+	}
+
+	public void setFrameBudget(int frameBudget) {
+		this.frameBudget = MathHelper.clamp(frameBudget, 0, 50);
+	}
+
+	/**
+	 * Returns for how long a stack must be hovered before the expensive parts of its tooltip are drawn,
+	 * such as entities, models, maps and inventory items.
+	 * <p>
+	 * {@code 0} draws every tooltip fully from the first frame.
+	 *
+	 * @return the dwell time in milliseconds
+	 */
+	public int getDwellTime() {
+		return this.dwellTime;
+	}
+
+	public void setDwellTime(int dwellTime) {
+		this.dwellTime = MathHelper.clamp(dwellTime, 0, 1000);
+	}
+
 	/**
 	 * Saves the configuration to file.
 	 *
@@ -190,26 +235,41 @@ public class AdvancedTooltipsConfig {
 		} catch (IOException e) {
 			AdvancedTooltips.warn("Failed to save configuration.", e);
 		}
+		AdvancedTooltips.onConfigChanged();
 		return this;
 	}
 
 	public static class ContainersConfig {
 		public static final boolean DEFAULT_CAMPFIRE = true;
+		public static final int DEFAULT_SUMMARY_THRESHOLD = 256;
+		public static final int DEFAULT_NESTED_DEPTH = 2;
+		public static final int MAX_NESTED_DEPTH = 4;
+		public static final boolean DEFAULT_HIGHLIGHT_HOLDERS = true;
 
 		public static final Codec<ContainersConfig> CODEC = RecordCodecBuilder.create(instance -> instance.group(
 				configEntry("containers/campfire", DEFAULT_CAMPFIRE, ContainersConfig::isCampfireEnabled),
 				configEntry(StorageContainerConfig.CODEC, "containers/storage", StorageContainerConfig::defaultConfig, ContainersConfig::getStorageConfig),
-				configEntry(ShulkerBoxConfig.CODEC, "containers/shulker_box", ShulkerBoxConfig::defaultConfig, ContainersConfig::getShulkerBoxConfig)
+				configEntry(ShulkerBoxConfig.CODEC, "containers/shulker_box", ShulkerBoxConfig::defaultConfig, ContainersConfig::getShulkerBoxConfig),
+				configEntry(Codec.INT, "containers/summary_threshold", () -> DEFAULT_SUMMARY_THRESHOLD, ContainersConfig::getSummaryThreshold),
+				configEntry(Codec.INT, "containers/nested_depth", () -> DEFAULT_NESTED_DEPTH, ContainersConfig::getNestedDepth),
+				configEntry("containers/highlight_holders", DEFAULT_HIGHLIGHT_HOLDERS, ContainersConfig::hasHighlightHolders)
 		).apply(instance, ContainersConfig::new));
 
 		private boolean campfire;
 		private final StorageContainerConfig storageContainerConfig;
 		private final ShulkerBoxConfig shulkerBoxConfig;
+		private int summaryThreshold;
+		private int nestedDepth;
+		private boolean highlightHolders;
 
-		public ContainersConfig(boolean campfire, StorageContainerConfig storageContainerConfig, ShulkerBoxConfig shulkerBoxConfig) {
+		public ContainersConfig(boolean campfire, StorageContainerConfig storageContainerConfig, ShulkerBoxConfig shulkerBoxConfig,
+		                        int summaryThreshold, int nestedDepth, boolean highlightHolders) {
 			this.campfire = campfire;
 			this.storageContainerConfig = storageContainerConfig;
 			this.shulkerBoxConfig = shulkerBoxConfig;
+			this.setSummaryThreshold(summaryThreshold);
+			this.setNestedDepth(nestedDepth);
+			this.highlightHolders = highlightHolders;
 		}
 
 		public boolean isCampfireEnabled() {
@@ -228,6 +288,49 @@ public class AdvancedTooltipsConfig {
 			return this.shulkerBoxConfig;
 		}
 
+		/**
+		 * Returns the slot count above which inventory tooltips show a summary of their most common items instead of every slot.
+		 * <p>
+		 * {@code 0} disables summaries.
+		 *
+		 * @return the summary threshold in slots
+		 */
+		public int getSummaryThreshold() {
+			return this.summaryThreshold;
+		}
+
+		public void setSummaryThreshold(int summaryThreshold) {
+			this.summaryThreshold = Math.max(summaryThreshold, 0);
+		}
+
+		/**
+		 * Returns the count of nested container levels expanded in inventory tooltips while shift is held.
+		 * <p>
+		 * {@code 0} disables nested inventories.
+		 *
+		 * @return the nested depth
+		 */
+		public int getNestedDepth() {
+			return this.nestedDepth;
+		}
+
+		public void setNestedDepth(int nestedDepth) {
+			this.nestedDepth = MathHelper.clamp(nestedDepth, 0, MAX_NESTED_DEPTH);
+		}
+
+		/**
+		 * Returns whether holding alt while hovering an item in a screen highlights the containers holding that item.
+		 *
+		 * @return {@code true} if container holders are highlighted, or {@code false} otherwise
+		 */
+		public boolean hasHighlightHolders() {
+			return this.highlightHolders;
+		}
+
+		public void setHighlightHolders(boolean highlightHolders) {
+			this.highlightHolders = highlightHolders;
+		}
+
 		public @Nullable StorageContainerConfig forBlock(Block block) {
 			AdvancedTooltipsConfig.StorageContainerConfig config = null;
 			if (block instanceof ChestBlock
@@ -239,7 +342,8 @@ public class AdvancedTooltipsConfig {
 		}
 
 		public static ContainersConfig defaultConfig() {
-			return new ContainersConfig(DEFAULT_CAMPFIRE, StorageContainerConfig.defaultConfig(), ShulkerBoxConfig.defaultConfig());
+			return new ContainersConfig(DEFAULT_CAMPFIRE, StorageContainerConfig.defaultConfig(), ShulkerBoxConfig.defaultConfig(),
+					DEFAULT_SUMMARY_THRESHOLD, DEFAULT_NESTED_DEPTH, DEFAULT_HIGHLIGHT_HOLDERS);
 		}
 	}
 
@@ -426,6 +530,8 @@ public class AdvancedTooltipsConfig {
 	 */
 	public static class EntitiesConfig {
 		public static final int DEFAULT_PUFF_STATE = 2;
+		public static final int DEFAULT_PREVIEW_REFRESH_RATE = 20;
+		public static final boolean DEFAULT_PERSISTENT_PREVIEWS = true;
 
 		public static final Codec<EntitiesConfig> CODEC = RecordCodecBuilder.create(instance -> instance.group(
 				configEntry(EntityConfig.CODEC, "entities/armor_stand", EntityConfig::defaultConfig, EntitiesConfig::getArmorStandConfig),
@@ -434,7 +540,13 @@ public class AdvancedTooltipsConfig {
 				configEntry(EntityConfig.CODEC, "entities/spawn_egg", EntityConfig::defaultConfig, EntitiesConfig::getSpawnEggConfig),
 				configEntry(EntityConfig.CODEC, "entities/mob_spawner", EntityConfig::defaultConfig, EntitiesConfig::getMobSpawnerConfig),
 				Codec.INT.fieldOf("pufferfish_puff_state").orElse(DEFAULT_PUFF_STATE)
-						.forGetter(EntitiesConfig::getPufferFishPuffState)
+						.forGetter(EntitiesConfig::getPufferFishPuffState),
+				Codec.INT.fieldOf("preview_refresh_rate").orElse(DEFAULT_PREVIEW_REFRESH_RATE)
+						.forGetter(EntitiesConfig::getPreviewRefreshRate),
+				Codec.BOOL.fieldOf("persistent_previews").orElse(DEFAULT_PERSISTENT_PREVIEWS)
+						.forGetter(EntitiesConfig::hasPersistentPreviews),
+				Codec.unboundedMap(Identifier.CODEC, EntityRenderQuality.CODEC).fieldOf("quality_overrides").orElseGet(Map::of)
+						.forGetter(EntitiesConfig::getQualityOverrides)
 		).apply(instance, EntitiesConfig::new));
 
 		private final EntityConfig armorStandConfig;
@@ -443,15 +555,22 @@ public class AdvancedTooltipsConfig {
 		private final EntityConfig spawnEggConfig;
 		private final EntityConfig mobSpawnerConfig;
 		private int pufferFishPuffState;
+		private int previewRefreshRate;
+		private boolean persistentPreviews;
+		private final Map<Identifier, EntityRenderQuality> qualityOverrides;
 
 		public EntitiesConfig(EntityConfig armorStandConfig, BeeEntityConfig beeConfig, EntityConfig fishBucketConfig, EntityConfig spawnEggConfig,
-		                      EntityConfig mobSpawnerConfig, int pufferFishPuffState) {
+		                      EntityConfig mobSpawnerConfig, int pufferFishPuffState, int previewRefreshRate, boolean persistentPreviews,
+		                      Map<Identifier, EntityRenderQuality> qualityOverrides) {
 			this.armorStandConfig = armorStandConfig;
 			this.beeConfig = beeConfig;
 			this.fishBucketConfig = fishBucketConfig;
 			this.spawnEggConfig = spawnEggConfig;
 			this.mobSpawnerConfig = mobSpawnerConfig;
 			this.setPufferFishPuffState(pufferFishPuffState);
+			this.setPreviewRefreshRate(previewRefreshRate);
+			this.persistentPreviews = persistentPreviews;
+			this.qualityOverrides = Map.copyOf(qualityOverrides);
 		}
 
 		public EntityConfig getArmorStandConfig() {
@@ -482,9 +601,63 @@ public class AdvancedTooltipsConfig {
 			this.pufferFishPuffState = MathHelper.clamp(pufferFishPuffState, 0, 2);
 		}
 
+		/**
+		 * Returns how many times per second spinning entity previews are re-rendered into their cached texture.
+		 * <p>
+		 * {@code 0} disables the preview cache, entities are then rendered directly every frame.
+		 *
+		 * @return the preview refresh rate in Hz
+		 */
+		public int getPreviewRefreshRate() {
+			return this.previewRefreshRate;
+		}
+
+		public void setPreviewRefreshRate(int previewRefreshRate) {
+			this.previewRefreshRate = MathHelper.clamp(previewRefreshRate, 0, 120);
+		}
+
+		/**
+		 * Returns whether static entity previews are stored in the game directory to be reused across sessions.
+		 *
+		 * @return {@code true} if entity previews are persisted, or {@code false} otherwise
+		 */
+		public boolean hasPersistentPreviews() {
+			return this.persistentPreviews;
+		}
+
+		public void setPersistentPreviews(boolean persistentPreviews) {
+			this.persistentPreviews = persistentPreviews;
+		}
+
+		/**
+		 * Returns the render qualities forced for specific entity types, regardless of the quality of the tooltip.
+		 * <p>
+		 * This allows heavy entities to always be rendered with {@link EntityRenderQuality#FAST},
+		 * or specific entities to keep every detail with {@link EntityRenderQuality#FANCY}.
+		 *
+		 * @return the render quality overrides by entity type identifier
+		 */
+		public Map<Identifier, EntityRenderQuality> getQualityOverrides() {
+			return this.qualityOverrides;
+		}
+
+		/**
+		 * Returns the render quality to use for the given entity type in the given tooltip.
+		 *
+		 * @param config the configuration of the tooltip
+		 * @param type the entity type
+		 * @return the render quality
+		 */
+		public EntityRenderQuality getRenderQuality(EntityConfig config, EntityType<?> type) {
+			if (this.qualityOverrides.isEmpty())
+				return config.getQuality();
+			return this.qualityOverrides.getOrDefault(Registry.ENTITY_TYPE.getId(type), config.getQuality());
+		}
+
 		public static EntitiesConfig defaultConfig() {
 			return new EntitiesConfig(EntityConfig.defaultConfig(), BeeEntityConfig.defaultConfig(), EntityConfig.defaultConfig(), EntityConfig.defaultConfig(),
-					EntityConfig.defaultConfig(), DEFAULT_PUFF_STATE);
+					EntityConfig.defaultConfig(), DEFAULT_PUFF_STATE, DEFAULT_PREVIEW_REFRESH_RATE,
+					DEFAULT_PERSISTENT_PREVIEWS, Map.of());
 		}
 	}
 
@@ -492,22 +665,26 @@ public class AdvancedTooltipsConfig {
 		public static final boolean DEFAULT_ENABLED = true;
 		public static final boolean DEFAULT_ALWAYS_SHOW_NAME = false;
 		public static final boolean DEFAULT_SPIN = true;
+		public static final EntityRenderQuality DEFAULT_QUALITY = EntityRenderQuality.FANCY;
 
 		public static final Codec<EntityConfig> CODEC = RecordCodecBuilder.create(instance -> instance.group(
 				Codec.BOOL.fieldOf("enabled").orElse(DEFAULT_ENABLED).forGetter(EntityConfig::isEnabled),
 				Codec.BOOL.fieldOf("always_show_name").orElse(DEFAULT_ALWAYS_SHOW_NAME)
 						.forGetter(EntityConfig::shouldAlwaysShowName),
-				Codec.BOOL.fieldOf("spin").orElse(DEFAULT_SPIN).forGetter(EntityConfig::shouldSpin)
+				Codec.BOOL.fieldOf("spin").orElse(DEFAULT_SPIN).forGetter(EntityConfig::shouldSpin),
+				EntityRenderQuality.CODEC.fieldOf("quality").orElse(DEFAULT_QUALITY).forGetter(EntityConfig::getQuality)
 		).apply(instance, EntityConfig::new));
 
 		private boolean enabled;
 		private boolean alwaysShowName;
 		private boolean spin;
+		private EntityRenderQuality quality;
 
-		public EntityConfig(boolean enabled, boolean alwaysShowName, boolean spin) {
+		public EntityConfig(boolean enabled, boolean alwaysShowName, boolean spin, EntityRenderQuality quality) {
 			this.enabled = enabled;
 			this.alwaysShowName = alwaysShowName;
 			this.spin = spin;
+			this.quality = quality;
 		}
 
 		public boolean isEnabled() {
@@ -534,8 +711,16 @@ public class AdvancedTooltipsConfig {
 			this.spin = spin;
 		}
 
+		public EntityRenderQuality getQuality() {
+			return this.quality;
+		}
+
+		public void setQuality(EntityRenderQuality quality) {
+			this.quality = quality;
+		}
+
 		public static EntityConfig defaultConfig() {
-			return new EntityConfig(DEFAULT_ENABLED, DEFAULT_ALWAYS_SHOW_NAME, DEFAULT_SPIN);
+			return new EntityConfig(DEFAULT_ENABLED, DEFAULT_ALWAYS_SHOW_NAME, DEFAULT_SPIN, DEFAULT_QUALITY);
 		}
 	}
 
@@ -550,13 +735,14 @@ public class AdvancedTooltipsConfig {
 				Codec.BOOL.fieldOf("always_show_name").orElse(DEFAULT_ALWAYS_SHOW_NAME)
 						.forGetter(EntityConfig::shouldAlwaysShowName),
 				Codec.BOOL.fieldOf("spin").orElse(DEFAULT_SPIN).forGetter(EntityConfig::shouldSpin),
+				EntityRenderQuality.CODEC.fieldOf("quality").orElse(DEFAULT_QUALITY).forGetter(EntityConfig::getQuality),
 				Codec.BOOL.fieldOf("show_honey_level").orElse(DEFAULT_SHOW_HONEY_LEVEL).forGetter(BeeEntityConfig::shouldShowHoney)
 		).apply(instance, BeeEntityConfig::new));
 
 		private boolean showHoneyLevel;
 
-		public BeeEntityConfig(boolean enabled, boolean alwaysShowName, boolean spin, boolean showHoneyLevel) {
-			super(enabled, alwaysShowName, spin);
+		public BeeEntityConfig(boolean enabled, boolean alwaysShowName, boolean spin, EntityRenderQuality quality, boolean showHoneyLevel) {
+			super(enabled, alwaysShowName, spin, quality);
 			this.showHoneyLevel = showHoneyLevel;
 		}
 
@@ -569,7 +755,7 @@ public class AdvancedTooltipsConfig {
 		}
 
 		public static BeeEntityConfig defaultConfig() {
-			return new BeeEntityConfig(DEFAULT_ENABLED, DEFAULT_ALWAYS_SHOW_NAME, DEFAULT_SPIN, DEFAULT_SHOW_HONEY_LEVEL);
+			return new BeeEntityConfig(DEFAULT_ENABLED, DEFAULT_ALWAYS_SHOW_NAME, DEFAULT_SPIN, DEFAULT_QUALITY, DEFAULT_SHOW_HONEY_LEVEL);
 		}
 	}
 
@@ -777,7 +963,9 @@ public class AdvancedTooltipsConfig {
 				FoodConfig.defaultConfig(),
 				DEFAULT_JUKEBOX_TOOLTIP_MODE,
 				DEFAULT_SIGN_TOOLTIP_MODE,
-				AdvancedConfig.defaultConfig()
+				AdvancedConfig.defaultConfig(),
+				DEFAULT_FRAME_BUDGET,
+				DEFAULT_DWELL_TIME
 		);
 	}
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.codecs.PrimitiveCodec;
+import net.minecraft.text.Text;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the different render qualities of entities in tooltips.
+ * <p>
+ * {@link #FAST} skips the feature renderers which are barely visible at tooltip size, such as held items, armor and heads.
+ */
+public enum EntityRenderQuality {
+	FAST,
+	FANCY;
+
+	public static final PrimitiveCodec<EntityRenderQuality> CODEC = new PrimitiveCodec<EntityRenderQuality>() {
+		@Override
+		public <T> DataResult<EntityRenderQuality> read(final DynamicOps<T> ops, final T input) {
+			return ops.getStringValue(input).map(id -> byId(id).orElse(FANCY));
+		}
+
+		@Override
+		public <T> T write(final DynamicOps<T> ops, final EntityRenderQuality value) {
+			return ops.createString(value.getName());
+		}
+
+		@Override
+		public String toString() {
+			return "EntityRenderQuality";
+		}
+	};
+
+	public boolean isFast() {
+		return this == FAST;
+	}
+
+	/**
+	 * Returns the next entity render quality available.
+	 *
+	 * @return the next available entity render quality
+	 */
+	public EntityRenderQuality next() {
+		var v = values();
+		if (v.length == this.ordinal() + 1)
+			return v[0];
+		return v[this.ordinal() + 1];
+	}
+
+	public @NotNull String getName() {
+		return this.name().toLowerCase();
+	}
+
+	/**
+	 * Gets the entity render quality from its identifier.
+	 *
+	 * @param id the identifier of the entity render quality
+	 * @return the entity render quality if found, else empty
+	 */
+	public static @NotNull Optional<EntityRenderQuality> byId(@NotNull String id) {
+		return Arrays.stream(values()).filter(mode -> mode.getName().equalsIgnoreCase(id)).findFirst();
+	}
+
+	public static class EntityRenderQualityArgumentType implements ArgumentType<EntityRenderQuality> {
+		private static final SimpleCommandExceptionType UNKNOWN_VALUE = new SimpleCommandExceptionType(
+				Text.translatable("advancedtooltips.command.error.unknown_entity_render_quality"));
+		private static final List<EntityRenderQuality> VALUES = List.of(values());
+
+		private EntityRenderQualityArgumentType() {
+		}
+
+		public static EntityRenderQualityArgumentType entityRenderQuality() {
+			return new EntityRenderQualityArgumentType();
+		}
+
+		public static EntityRenderQuality getEntityRenderQuality(final CommandContext<?> context, final String name) {
+			return context.getArgument(name, EntityRenderQuality.class);
+		}
+
+		@Override
+		public <S> CompletableFuture<Suggestions> listSuggestions(CommandContext<S> context, SuggestionsBuilder builder) {
+			VALUES.stream().map(EntityRenderQuality::getName)
+					.filter(s -> s.startsWith(builder.getRemainingLowerCase()))
+					.forEach(builder::suggest);
+			return builder.buildFuture();
+		}
+
+		@Override
+		public Collection<String> getExamples() {
+			return VALUES.stream().map(EntityRenderQuality::getName).collect(Collectors.toList());
+		}
+
+		@Override
+		public EntityRenderQuality parse(StringReader reader) throws CommandSyntaxException {
+			var value = reader.readString();
+			return VALUES.stream().filter(s -> s.name().equalsIgnoreCase(value)).findFirst().orElseThrow(() -> UNKNOWN_VALUE.createWithContext(reader));
+		}
+	}
+}
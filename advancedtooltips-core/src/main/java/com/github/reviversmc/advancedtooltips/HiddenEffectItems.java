@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import net.minecraft.item.Item;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.tag.TagKey;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.JsonHelper;
+import net.minecraft.util.registry.Registry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Holds the items whose effects are hidden in tooltips, compiled into a set of raw item identifiers.
+ * <p>
+ * The set combines the {@link AdvancedTooltips#HIDDEN_EFFECTS_TAG hidden effects tag} sent by the server,
+ * the {@code advancedtooltips:hidden_effects.json} client resource, which works on servers without the tag,
+ * and {@link AdvancedTooltips#hiddenEffectsItems}.
+ * It is rebuilt once tags are synchronized and once client resources are reloaded, lookups are a single bit read.
+ */
+public final class HiddenEffectItems {
+	static final Identifier RESOURCE_ID = new Identifier(AdvancedTooltips.NAMESPACE, "hidden_effects.json");
+
+	private static volatile BitSet hiddenItems = new BitSet();
+	private static volatile Entries resourceEntries = new Entries(List.of(), List.of());
+
+	private HiddenEffectItems() {
+		throw new UnsupportedOperationException("HiddenEffectItems only contains static-definitions");
+	}
+
+	/**
+	 * Returns whether the effects of the given item are hidden.
+	 *
+	 * @param item the item
+	 * @return {@code true} if the effects of the item are hidden, or {@code false} otherwise
+	 */
+	public static boolean isHidden(Item item) {
+		return hiddenItems.get(Registry.ITEM.getRawId(item));
+	}
+
+	/**
+	 * Rebuilds the set of hidden effect items, called once tags are synchronized
+	 * or once {@link AdvancedTooltips#hiddenEffectsItems} is changed.
+	 */
+	public static void rebuild() {
+		var entries = resourceEntries;
+		var bits = new BitSet(Registry.ITEM.size());
+
+		for (var entry : Registry.ITEM.iterateEntries(AdvancedTooltips.HIDDEN_EFFECTS_TAG)) {
+			bits.set(Registry.ITEM.getRawId(entry.value()));
+		}
+		for (var tag : entries.tags()) {
+			for (var entry : Registry.ITEM.iterateEntries(tag)) {
+				bits.set(Registry.ITEM.getRawId(entry.value()));
+			}
+		}
+		for (var item : entries.items()) {
+			bits.set(Registry.ITEM.getRawId(item));
+		}
+		for (var item : AdvancedTooltips.hiddenEffectsItems) {
+			bits.set(Registry.ITEM.getRawId(item));
+		}
+
+		hiddenItems = bits;
+	}
+
+	/**
+	 * Loads the hidden effect items from the client resources, then rebuilds the set.
+	 * <p>
+	 * The resource follows the format of tag files, the values of every resource pack are merged unless one of them replaces the previous ones.
+	 *
+	 * @param manager the client resource manager
+	 */
+	static void load(ResourceManager manager) {
+		var items = new ArrayList<Item>();
+		var tags = new ArrayList<TagKey<Item>>();
+
+		for (var resource : manager.getAllResources(RESOURCE_ID)) {
+			try (var reader = resource.openBufferedReader()) {
+				var json = JsonHelper.asObject(JsonParser.parseReader(reader), "hidden effects");
+				if (JsonHelper.getBoolean(json, "replace", false)) {
+					items.clear();
+					tags.clear();
+				}
+
+				for (var value : JsonHelper.getArray(json, "values")) {
+					var entry = JsonHelper.asString(value, "value");
+					if (entry.startsWith("#")) {
+						var id = Identifier.tryParse(entry.substring(1));
+						if (id != null)
+							tags.add(TagKey.of(Registry.ITEM_KEY, id));
+					} else {
+						var id = Identifier.tryParse(entry);
+						if (id != null)
+							Registry.ITEM.getOrEmpty(id).ifPresent(items::add);
+					}
+				}
+			} catch (IOException | JsonParseException e) {
+				AdvancedTooltips.warn("Could not read hidden effect items from \"" + resource.getSourceName() + "\".", e);
+			}
+		}
+
+		resourceEntries = new Entries(List.copyOf(items), List.copyOf(tags));
+		rebuild();
+	}
+
+	private record Entries(List<Item> items, List<TagKey<Item>> tags) {
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks tooltips which are built in bulk, like by recipe viewers or creative search to index every item.
+ * <p>
+ * Bulk tooltips only hold searchable text: the vanilla lines replaced by fancy tooltips are kept, and the lines and work
+ * which are only useful once the tooltip is rendered are skipped.
+ * Tooltips are built in bulk within {@link #begin()} or {@link #run(Supplier)}, on the thread which opened the scope.
+ */
+@Environment(EnvType.CLIENT)
+public final class BulkTooltips {
+	private static final ThreadLocal<Scope> SCOPE = ThreadLocal.withInitial(Scope::new);
+
+	private BulkTooltips() {
+		throw new UnsupportedOperationException("BulkTooltips only contains static-definitions");
+	}
+
+	/**
+	 * Starts building tooltips in bulk on the current thread, until the returned scope is closed.
+	 * <p>
+	 * Scopes may be nested.
+	 *
+	 * @return the scope to close once done
+	 */
+	public static Scope begin() {
+		var scope = SCOPE.get();
+		scope.depth++;
+		return scope;
+	}
+
+	/**
+	 * Runs the given action while building tooltips in bulk on the current thread.
+	 *
+	 * @param action the action, usually building many tooltips
+	 * @param <T> the type of the result
+	 * @return the result of the action
+	 */
+	public static <T> T run(Supplier<T> action) {
+		try (var ignored = begin()) {
+			return action.get();
+		}
+	}
+
+	/**
+	 * Returns whether tooltips are built in bulk on the current thread.
+	 *
+	 * @return {@code true} if tooltips are built in bulk, or {@code false} otherwise
+	 */
+	public static boolean isActive() {
+		return SCOPE.get().depth != 0;
+	}
+
+	/**
+	 * Represents a bulk tooltip scope of a thread.
+	 */
+	public static final class Scope implements AutoCloseable {
+		private int depth;
+
+		private Scope() {
+		}
+
+		@Override
+		public void close() {
+			if (this.depth > 0)
+				this.depth--;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.DyeColor;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a view of an already decoded inventory context, used to bridge the providers of inventory contexts.
+ */
+record ContextInventoryView(InventoryProvider.Context context) implements InventoryView {
+	@Override
+	public int size() {
+		return this.context.inventory().size();
+	}
+
+	@Override
+	public boolean isOccupied(int slot) {
+		return !this.context.inventory().get(slot).isEmpty();
+	}
+
+	@Override
+	public ItemStack getStack(int slot) {
+		return this.context.inventory().get(slot);
+	}
+
+	@Override
+	public @Nullable DyeColor getColor() {
+		return this.context.color();
+	}
+
+	@Override
+	public InventoryProvider.Context toContext() {
+		return this.context;
+	}
+}
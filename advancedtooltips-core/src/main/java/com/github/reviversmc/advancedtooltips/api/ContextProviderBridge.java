@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.minecraft.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
+
+/**
+ * Bridges a provider of decoded inventory contexts, including legacy Inspecio providers, to an inventory view provider.
+ */
+record ContextProviderBridge(InventoryProvider provider) implements InventoryViewProvider {
+	@Override
+	public @Nullable InventoryView getInventoryView(ItemStack stack, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config) {
+		var context = this.provider.getInventoryContext(stack, config);
+		return context == null ? null : InventoryView.of(context);
+	}
+}
@@ -42,10 +42,32 @@ public interface InventoryProvider {
 	 */
 	@Nullable InventoryProvider.Context getInventoryContext(ItemStack stack, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config);
 
+	/**
+	 * Searches the inventory context of the given item stack among every registered provider.
+	 * <p>
+	 * Stacks of the returned context may be decoded lazily, see {@link InventoryViewProvider}.
+	 *
+	 * @param stack the item stack
+	 * @param config the configuration of the container, may be {@code null}
+	 * @return {@code null} if no inventory context could be created, otherwise an inventory context
+	 */
 	static @Nullable InventoryProvider.Context searchInventoryContextOf(ItemStack stack, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config) {
 		return InventoryProviderManager.getInventoryContext(stack, config);
 	}
 
+	/**
+	 * Searches the inventory contexts of the given item stacks among every registered provider, in one call.
+	 * <p>
+	 * Each distinct item has its container configuration resolved once, and stacks with the same item and NBT are only searched once.
+	 * Stacks of the returned contexts may be decoded lazily, like with {@link #searchInventoryContextOf(ItemStack, AdvancedTooltipsConfig.StorageContainerConfig)}.
+	 *
+	 * @param stacks the item stacks
+	 * @return the inventory context of each stack, in the same order, {@code null} for the stacks without inventory context
+	 */
+	static List<@Nullable Context> searchInventoryContextsOf(List<ItemStack> stacks) {
+		return InventoryProviderManager.getInventoryContexts(stacks);
+	}
+
 	/**
 	 * Registers an inventory provider, can optionally be mapped to specific items.
 	 *
@@ -53,13 +75,7 @@ public interface InventoryProvider {
 	 * @param items if non-empty, the inventory provider will be only registered for those items
 	 */
 	static void register(InventoryProvider provider, Item... items) {
-		if (items.length != 0) {
-			for (var item : items) {
-				InventoryProviderManager.MAPPED_PROVIDERS.put(item, provider);
-			}
-		} else {
-			InventoryProviderManager.PROVIDERS.add(provider);
-		}
+		InventoryProviderManager.register(new ContextProviderBridge(provider), provider.getClass(), items);
 	}
 
 	record Context(List<ItemStack> inventory, @Nullable DyeColor color) {
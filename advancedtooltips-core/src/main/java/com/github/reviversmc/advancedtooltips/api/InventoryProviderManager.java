@@ -17,49 +17,347 @@
 
 package com.github.reviversmc.advancedtooltips.api;
 
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2BooleanLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.minecraft.item.BlockItem;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
 import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
+import com.github.reviversmc.advancedtooltips.tooltip.DecodeBudget;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Manages the registered inventory providers and caches which of them give inventories for each item.
+ * <p>
+ * Once a provider gave an inventory for an item, only the providers which did so are asked for the stacks of that item,
+ * so the providers which never match it are skipped without reading the stack NBT.
+ * Item and NBT combinations are only remembered when no provider gave any inventory for them.
+ * <p>
+ * Registered providers are published as immutable snapshots, so they are read from any thread without locking nor allocating.
+ * The caches are kept per thread and are cleared lazily through a shared generation, so lookups never take a shared lock either.
+ * Every provider call goes through its {@link InventoryProviderMonitor}.
+ * Inventory context providers are bridged to inventory view providers, and the views of providers declaring a cache key are memoized.
+ */
 @Environment(EnvType.CLIENT)
 @ApiStatus.Internal
-final class InventoryProviderManager {
-	static final Map<Item, InventoryProvider> MAPPED_PROVIDERS = new Object2ObjectOpenHashMap<>();
-	static final List<InventoryProvider> PROVIDERS = new ArrayList<>();
+public final class InventoryProviderManager {
+	private static final int MAX_UNMATCHED_STACKS = 1024;
+	private static final int MAX_CACHED_VIEWS = 256;
+	private static final InventoryProviderMonitor[] NO_PROVIDERS = new InventoryProviderMonitor[0];
+
+	private static final Object REGISTRATION_LOCK = new Object();
+	private static volatile Registry registry = new Registry(new Reference2ObjectOpenHashMap<>(), NO_PROVIDERS);
+
+	/**
+	 * Incremented to clear the caches of every thread, each thread clears its own caches on its next lookup.
+	 */
+	private static final AtomicInteger CACHE_GENERATION = new AtomicInteger();
+	private static final ThreadLocal<Caches> CACHES = ThreadLocal.withInitial(Caches::new);
+
+	private InventoryProviderManager() {
+		throw new UnsupportedOperationException("InventoryProviderManager only contains static-definitions");
+	}
+
+	/**
+	 * Registers the built-in inventory provider, which is timed like every other provider but never disabled.
+	 *
+	 * @param provider the built-in inventory view provider
+	 */
+	public static void registerBuiltin(InventoryViewProvider provider) {
+		var providerClass = provider instanceof NbtPathKey.Provider wrapper ? wrapper.provider().getClass() : provider.getClass();
+		register(provider, providerClass, true);
+	}
+
+	/**
+	 * Registers an inventory provider by publishing a new snapshot of the registered providers.
+	 *
+	 * @param provider the inventory view provider to register
+	 * @param providerClass the class the provider is named after
+	 * @param items if non-empty, the inventory provider will be only registered for those items
+	 */
+	static void register(InventoryViewProvider provider, Class<?> providerClass, Item... items) {
+		register(provider, providerClass, false, items);
+	}
+
+	private static void register(InventoryViewProvider provider, Class<?> providerClass, boolean builtin, Item... items) {
+		var monitor = new InventoryProviderMonitor(provider, providerClass, builtin);
+		synchronized (REGISTRATION_LOCK) {
+			var current = registry;
+			if (items.length != 0) {
+				var mappedProviders = new Reference2ObjectOpenHashMap<>(current.mappedProviders());
+				for (var item : items) {
+					mappedProviders.put(item, monitor);
+				}
+				registry = new Registry(mappedProviders, current.providers());
+			} else {
+				var providers = Arrays.copyOf(current.providers(), current.providers().length + 1);
+				providers[providers.length - 1] = monitor;
+				registry = new Registry(current.mappedProviders(), providers);
+			}
+		}
+
+		clearCaches();
+	}
+
+	/**
+	 * Clears the provider caches, called when providers are registered or when the configuration changes.
+	 */
+	public static void clearCaches() {
+		CACHE_GENERATION.incrementAndGet();
+	}
+
+	/**
+	 * Returns the monitors of every registered provider.
+	 *
+	 * @return the provider monitors
+	 */
+	public static List<InventoryProviderMonitor> getMonitors() {
+		var registry = InventoryProviderManager.registry;
+		var monitors = new ArrayList<InventoryProviderMonitor>(Arrays.asList(registry.providers()));
+		for (var monitor : registry.mappedProviders().values()) {
+			if (!monitors.contains(monitor))
+				monitors.add(monitor);
+		}
+		return monitors;
+	}
 
 	static @Nullable InventoryProvider.Context getInventoryContext(ItemStack stack, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config) {
+		var view = getInventoryView(stack, config);
+		return view == null ? null : view.toContext();
+	}
+
+	static List<InventoryProvider.@Nullable Context> getInventoryContexts(List<ItemStack> stacks) {
+		var containersConfig = AdvancedTooltips.getConfig().getContainersConfig();
+		var configs = new Reference2ObjectOpenHashMap<Item, Optional<AdvancedTooltipsConfig.StorageContainerConfig>>();
+		var uniqueIndices = new Object2IntOpenHashMap<StackKey>();
+		uniqueIndices.defaultReturnValue(-1);
+		var uniqueStacks = new ArrayList<ItemStack>();
+		var uniqueConfigs = new ArrayList<AdvancedTooltipsConfig.StorageContainerConfig>();
+
+		// Stacks sharing the same item and NBT are only searched once.
+		var indices = new int[stacks.size()];
+		for (int i = 0; i < stacks.size(); i++) {
+			var stack = stacks.get(i);
+			if (stack.isEmpty()) {
+				indices[i] = -1;
+				continue;
+			}
+
+			var config = configs.computeIfAbsent(stack.getItem(), item -> Optional.ofNullable(
+					item instanceof BlockItem blockItem ? containersConfig.forBlock(blockItem.getBlock()) : null
+			)).orElse(null);
+			var key = new StackKey(stack.getItem(), stack.getNbt(), config);
+			int index = uniqueIndices.getInt(key);
+			if (index == -1) {
+				index = uniqueStacks.size();
+				uniqueIndices.put(key, index);
+				uniqueStacks.add(stack);
+				uniqueConfigs.add(config);
+			}
+			indices[i] = index;
+		}
+
+		// Stacks are searched on the calling thread, so the caches and the decode budget of that thread apply.
+		var contexts = new InventoryProvider.Context[uniqueStacks.size()];
+		for (int index = 0; index < contexts.length; index++) {
+			var view = getInventoryView(uniqueStacks.get(index), uniqueConfigs.get(index));
+			if (view != null)
+				contexts[index] = view.toContext();
+		}
+
+		var result = new ArrayList<InventoryProvider.Context>(stacks.size());
+		for (int index : indices) {
+			result.add(index == -1 ? null : contexts[index]);
+		}
+		return result;
+	}
+
+	static @Nullable InventoryView getInventoryView(ItemStack stack, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config) {
+		var registry = InventoryProviderManager.registry;
+
 		// We first search for providers that are specifically mapped to the given item.
-		var mappedProvider = MAPPED_PROVIDERS.get(stack.getItem());
-		if (mappedProvider != null) {
-			InventoryProvider.Context context = mappedProvider.getInventoryContext(stack, config);
-			if (context != null) {
-				return context;
+		var mappedProvider = registry.mappedProviders().get(stack.getItem());
+		if (mappedProvider != null && mappedProvider.isEnabled()) {
+			var view = getInventoryView(mappedProvider, stack, config, registry);
+			if (view != null) {
+				return view;
 			}
 		}
 
-		// Otherwise, we search for the one who provides the biggest inventory for the given item (most likely to be the most complete one)
-		// Note: inventory compacting happens in the inventory tooltip component directly.
-		InventoryProvider.Context context = null;
-		for (var provider : PROVIDERS) {
-			var currentContext = provider.getInventoryContext(stack, config);
+		var caches = getCaches();
+		var item = stack.getItem();
+		var matchedProviders = caches.matchedProviders.getOrDefault(item, NO_PROVIDERS);
 
-			if (currentContext != null) {
-				if (context == null || currentContext.inventory().size() > context.inventory().size()) {
-					context = currentContext;
-				}
+		// Providers which already gave an inventory for this item are asked first, without looking up the stack NBT.
+		var matched = getLargestInventoryView(matchedProviders, NO_PROVIDERS, stack, config, registry);
+		if (matched != null)
+			return matched.view();
+
+		var stackKey = new StackKey(item, stack.getNbt(), config);
+		if (caches.unmatchedStacks.getAndMoveToLast(stackKey))
+			return null;
+
+		var largest = getLargestInventoryView(registry.providers(), matchedProviders, stack, config, registry);
+
+		// Results computed from an outdated snapshot are not cached.
+		if (registry != InventoryProviderManager.registry)
+			return largest == null ? null : largest.view();
+
+		if (largest != null) {
+			var providers = Arrays.copyOf(matchedProviders, matchedProviders.length + 1);
+			providers[providers.length - 1] = largest.provider();
+			caches.matchedProviders.put(item, providers);
+			return largest.view();
+		}
+
+		// Misses which may be caused by disabled providers, or by stacks truncated by the decode budget, are not cached.
+		if (DecodeBudget.isExceeded())
+			return null;
+		for (var provider : registry.providers()) {
+			if (!provider.isEnabled())
+				return null;
+		}
+
+		caches.unmatchedStacks.putAndMoveToLast(stackKey.copy(), true);
+		if (caches.unmatchedStacks.size() > MAX_UNMATCHED_STACKS)
+			caches.unmatchedStacks.removeFirst();
+		return null;
+	}
+
+	/**
+	 * Searches for the provider which provides the biggest inventory for the given item, which is most likely to be the most complete one.
+	 * <p>
+	 * Note: inventory compacting happens in the inventory tooltip component directly.
+	 *
+	 * @param skipped the providers which were already asked
+	 */
+	private static @Nullable ProvidedView getLargestInventoryView(InventoryProviderMonitor[] providers, InventoryProviderMonitor[] skipped, ItemStack stack,
+	                                                              @Nullable AdvancedTooltipsConfig.StorageContainerConfig config, Registry registry) {
+		ProvidedView largest = null;
+		for (var provider : providers) {
+			if (!provider.isEnabled() || contains(skipped, provider))
+				continue;
+
+			var currentView = getInventoryView(provider, stack, config, registry);
+
+			if (currentView != null && (largest == null || currentView.size() > largest.view().size())) {
+				largest = new ProvidedView(provider, currentView);
 			}
 		}
 
-		return context;
+		return largest;
+	}
+
+	private static boolean contains(InventoryProviderMonitor[] providers, InventoryProviderMonitor provider) {
+		for (var other : providers) {
+			if (other == provider)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the view of the given provider, memoized if the provider declares a cache key for the stack.
+	 */
+	private static @Nullable InventoryView getInventoryView(InventoryProviderMonitor provider, ItemStack stack,
+	                                                        @Nullable AdvancedTooltipsConfig.StorageContainerConfig config, Registry registry) {
+		var cacheKey = provider.getCacheKey(stack);
+		if (cacheKey == null)
+			return provider.getInventoryView(stack, config);
+
+		var views = getCaches().views;
+		var viewKey = new ViewKey(provider, cacheKey, config);
+		var cachedView = views.getAndMoveToLast(viewKey);
+		if (cachedView != null)
+			return cachedView.orElse(null);
+
+		var view = provider.getInventoryView(stack, config);
+
+		// Views truncated by the decode budget, or computed from an outdated snapshot, are not memoized.
+		if (!DecodeBudget.isExceeded() && registry == InventoryProviderManager.registry) {
+			if (cacheKey instanceof NbtPathKey nbtPathKey)
+				viewKey = new ViewKey(provider, nbtPathKey.copy(), config);
+
+			views.putAndMoveToLast(viewKey, Optional.ofNullable(view));
+			if (views.size() > MAX_CACHED_VIEWS)
+				views.removeFirst();
+		}
+
+		return view;
+	}
+
+	/**
+	 * Returns the caches of the current thread, cleared first if caches were cleared since their last use.
+	 */
+	private static Caches getCaches() {
+		var caches = CACHES.get();
+		int generation = CACHE_GENERATION.get();
+		if (caches.generation != generation) {
+			caches.matchedProviders.clear();
+			caches.unmatchedStacks.clear();
+			caches.views.clear();
+			caches.generation = generation;
+		}
+		return caches;
+	}
+
+	/**
+	 * Represents a snapshot of the registered providers, never modified once published.
+	 *
+	 * @param mappedProviders the providers mapped to specific items
+	 * @param providers the providers of every item
+	 */
+	private record Registry(Reference2ObjectMap<Item, InventoryProviderMonitor> mappedProviders, InventoryProviderMonitor[] providers) {
+	}
+
+	/**
+	 * Represents the provider caches of a thread.
+	 */
+	private static final class Caches {
+		/**
+		 * The providers which gave the largest inventory of a stack of each item, in the order they matched.
+		 */
+		private final Reference2ObjectOpenHashMap<Item, InventoryProviderMonitor[]> matchedProviders = new Reference2ObjectOpenHashMap<>();
+		/**
+		 * The item and NBT combinations for which no provider gave any inventory.
+		 */
+		private final Object2BooleanLinkedOpenHashMap<StackKey> unmatchedStacks = new Object2BooleanLinkedOpenHashMap<>();
+		/**
+		 * The memoized views of the providers which declare cache keys.
+		 */
+		private final Object2ObjectLinkedOpenHashMap<ViewKey, Optional<InventoryView>> views = new Object2ObjectLinkedOpenHashMap<>();
+		private int generation = CACHE_GENERATION.get();
+	}
+
+	private record ProvidedView(InventoryProviderMonitor provider, InventoryView view) {
+	}
+
+	private record ViewKey(InventoryProviderMonitor provider, Object cacheKey, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config) {
+	}
+
+	/**
+	 * Represents an item and NBT combination, along with the container configuration it is searched with.
+	 * <p>
+	 * Cached keys hold a copy of the NBT, as the NBT of a stack may change while its key is cached.
+	 */
+	private record StackKey(Item item, @Nullable NbtCompound nbt, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config) {
+		StackKey copy() {
+			return new StackKey(this.item, this.nbt == null ? null : this.nbt.copy(), this.config);
+		}
 	}
 }
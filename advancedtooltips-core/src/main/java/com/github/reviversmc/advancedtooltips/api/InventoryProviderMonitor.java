@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
+import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Times the calls of a registered inventory provider, and disables it for a while when it repeatedly fails or stalls.
+ * <p>
+ * Disabled providers are skipped, they are enabled again for a trial call once their disable time ran out.
+ * Each trip doubles the disable time, a call which neither fails nor stalls resets it.
+ * The built-in provider is only timed, it is never disabled.
+ * <p>
+ * Counters are atomics, so concurrent calls are recorded without locking.
+ */
+@Environment(EnvType.CLIENT)
+@ApiStatus.Internal
+public final class InventoryProviderMonitor {
+	/**
+	 * Duration from which a call is considered stalled, in nanoseconds.
+	 * <p>
+	 * It is far above the cost of decoding any sane inventory, so garbage collection pauses and frame hitches do not count.
+	 */
+	private static final long STALLED_CALL = 100_000_000L;
+	/**
+	 * Count of consecutive failing or stalled calls after which the provider is disabled.
+	 */
+	private static final int TRIP_THRESHOLD = 5;
+	private static final long MIN_DISABLE_TIME = 10_000L;
+	private static final long MAX_DISABLE_TIME = 300_000L;
+	private static final int SAMPLES = 256;
+
+	private final InventoryViewProvider provider;
+	private final String name;
+	private final String modId;
+	private final boolean builtin;
+
+	private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+	private final AtomicLong callCount = new AtomicLong();
+	private final AtomicLong failureCount = new AtomicLong();
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+	private final AtomicLong disableTime = new AtomicLong(MIN_DISABLE_TIME);
+	private final AtomicLong disabledUntil = new AtomicLong(-1);
+
+	InventoryProviderMonitor(InventoryViewProvider provider, Class<?> providerClass, boolean builtin) {
+		this.provider = provider;
+		this.name = getHostClassName(providerClass);
+		this.modId = findModId(this.name);
+		this.builtin = builtin;
+	}
+
+	/**
+	 * Returns whether the provider may currently be called.
+	 * <p>
+	 * A provider whose disable time ran out is enabled again, and the provider caches are cleared so it gets asked again.
+	 *
+	 * @return {@code true} if the provider is enabled, or {@code false} otherwise
+	 */
+	boolean isEnabled() {
+		return this.isEnabled(Util.getMeasuringTimeMs());
+	}
+
+	/**
+	 * Returns whether the provider may be called at the given time.
+	 *
+	 * @param time the current time in milliseconds
+	 * @return {@code true} if the provider is enabled, or {@code false} otherwise
+	 * @see #isEnabled()
+	 */
+	boolean isEnabled(long time) {
+		long disabledUntil = this.disabledUntil.get();
+		if (disabledUntil == -1)
+			return true;
+		if (time < disabledUntil)
+			return false;
+
+		// Only the thread which enables the provider again clears the caches.
+		if (this.disabledUntil.compareAndSet(disabledUntil, -1))
+			InventoryProviderManager.clearCaches();
+		return true;
+	}
+
+	/**
+	 * Calls the provider, timing the call and catching any exception it throws.
+	 *
+	 * @param stack the item stack
+	 * @param config the container configuration
+	 * @return the inventory view, or {@code null} if the provider gave none or failed
+	 */
+	@Nullable InventoryView getInventoryView(ItemStack stack, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config) {
+		long start = Util.getMeasuringTimeNano();
+		InventoryView view = null;
+		Throwable failure = null;
+		try {
+			view = this.provider.getInventoryView(stack, config);
+		} catch (RuntimeException e) {
+			failure = e;
+		}
+		this.record(Util.getMeasuringTimeNano() - start, failure, Util.getMeasuringTimeMs());
+		return view;
+	}
+
+	/**
+	 * Returns the cache key the provider declares for the given stack.
+	 *
+	 * @param stack the item stack
+	 * @return the cache key, or {@code null} if the view of the stack must not be memoized
+	 */
+	@Nullable Object getCacheKey(ItemStack stack) {
+		try {
+			return this.provider.getCacheKey(stack);
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Records a call of the provider, and disables the provider if it tripped.
+	 *
+	 * @param duration the duration of the call in nanoseconds
+	 * @param failure the exception thrown by the call, or {@code null} if it did not fail
+	 * @param time the time the call ended at in milliseconds
+	 */
+	void record(long duration, @Nullable Throwable failure, long time) {
+		long call = this.callCount.getAndIncrement();
+		this.samples.set((int) (call % SAMPLES), duration);
+
+		if (failure != null && this.failureCount.getAndIncrement() == 0) {
+			AdvancedTooltips.warn("Inventory provider " + this.name + " from mod " + this.modId + " threw an exception.", failure);
+		}
+
+		if (this.builtin)
+			return;
+
+		if (failure != null || duration > STALLED_CALL) {
+			int failures = this.consecutiveFailures.incrementAndGet();
+			// Only the thread which resets the count trips the provider.
+			if (failures >= TRIP_THRESHOLD && this.consecutiveFailures.compareAndSet(failures, 0)) {
+				long disableTime = this.disableTime.get();
+				this.disabledUntil.set(time + disableTime);
+				this.disableTime.set(Math.min(disableTime * 2, MAX_DISABLE_TIME));
+				AdvancedTooltips.warn("Inventory provider " + this.name + " from mod " + this.modId + " has been disabled for "
+						+ disableTime / 1000 + "s after " + TRIP_THRESHOLD + " failing or stalled calls.");
+			}
+		} else {
+			// Healthy calls only write when something has to be reset, so they do not contend on the counters.
+			if (this.consecutiveFailures.get() != 0)
+				this.consecutiveFailures.set(0);
+			if (this.disableTime.get() != MIN_DISABLE_TIME)
+				this.disableTime.set(MIN_DISABLE_TIME);
+		}
+	}
+
+	/**
+	 * Returns the name of the provider, which is the name of its class.
+	 *
+	 * @return the provider name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the identifier of the mod which registered the provider.
+	 *
+	 * @return the mod identifier, or {@code "unknown"} if it could not be found
+	 */
+	public String getModId() {
+		return this.modId;
+	}
+
+	public long getCallCount() {
+		return this.callCount.get();
+	}
+
+	public long getFailureCount() {
+		return this.failureCount.get();
+	}
+
+	/**
+	 * Returns the given percentile of the latency of the last calls.
+	 *
+	 * @param percentile the percentile, between {@code 0} and {@code 1}
+	 * @return the latency in nanoseconds, or {@code 0} if the provider was never called
+	 */
+	public long getLatencyPercentile(double percentile) {
+		var samples = new long[(int) Math.min(this.callCount.get(), SAMPLES)];
+		if (samples.length == 0)
+			return 0;
+
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = this.samples.get(i);
+		}
+
+		Arrays.sort(samples);
+		return samples[Math.min((int) (percentile * samples.length), samples.length - 1)];
+	}
+
+	/**
+	 * Returns the remaining time during which the provider is disabled.
+	 *
+	 * @return the remaining disable time in milliseconds, or {@code 0} if the provider is enabled
+	 */
+	public long getDisabledTime() {
+		long disabledUntil = this.disabledUntil.get();
+		if (disabledUntil == -1)
+			return 0;
+		return Math.max(disabledUntil - Util.getMeasuringTimeMs(), 0);
+	}
+
+	/**
+	 * Returns the name of the class declaring the given class, or its own name if it is not a lambda.
+	 */
+	private static String getHostClassName(Class<?> providerClass) {
+		var name = providerClass.getName();
+		int lambdaIndex = name.indexOf("$$Lambda");
+		return lambdaIndex == -1 ? name : name.substring(0, lambdaIndex);
+	}
+
+	private static String findModId(String className) {
+		var classFile = className.replace('.', '/') + ".class";
+		for (var mod : FabricLoader.getInstance().getAllMods()) {
+			for (var root : mod.getRootPaths()) {
+				if (Files.exists(root.resolve(classFile)))
+					return mod.getMetadata().getId();
+			}
+		}
+		return "unknown";
+	}
+}
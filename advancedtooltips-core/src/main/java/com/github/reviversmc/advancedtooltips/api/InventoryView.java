@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.DyeColor;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a lazy view of the inventory of an item stack, its stacks are only decoded once accessed.
+ * <p>
+ * Views may be cached and shared once their provider declares a cache key, they must then never change.
+ * Stacks returned by views must not be modified.
+ */
+@Environment(EnvType.CLIENT)
+public interface InventoryView {
+	/**
+	 * Returns the count of slots of this inventory.
+	 *
+	 * @return the slot count
+	 */
+	int size();
+
+	/**
+	 * Returns whether the given slot holds a stack, without decoding it.
+	 *
+	 * @param slot the slot
+	 * @return {@code true} if the slot holds a stack, or {@code false} otherwise
+	 */
+	boolean isOccupied(int slot);
+
+	/**
+	 * Returns the stack in the given slot, decoding it if needed.
+	 *
+	 * @param slot the slot
+	 * @return the stack, or {@link ItemStack#EMPTY} if the slot is empty
+	 */
+	ItemStack getStack(int slot);
+
+	/**
+	 * Returns the item in the given slot, without decoding the whole stack if possible.
+	 *
+	 * @param slot the slot
+	 * @return the item, or {@link net.minecraft.item.Items#AIR} if the slot is empty
+	 */
+	default Item getItem(int slot) {
+		return this.getStack(slot).getItem();
+	}
+
+	/**
+	 * Returns the count of items in the given slot, without decoding the whole stack if possible.
+	 *
+	 * @param slot the slot
+	 * @return the item count, or {@code 0} if the slot is empty
+	 */
+	default int getCount(int slot) {
+		return this.getStack(slot).getCount();
+	}
+
+	/**
+	 * Returns the color of the slots of this inventory.
+	 *
+	 * @return the color, or {@code null} for the default color
+	 */
+	@Nullable DyeColor getColor();
+
+	/**
+	 * Returns whether no slot of this inventory holds a stack.
+	 *
+	 * @return {@code true} if this inventory is empty, or {@code false} otherwise
+	 */
+	default boolean isEmpty() {
+		for (int slot = 0; slot < this.size(); slot++) {
+			if (this.isOccupied(slot))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns an inventory context backed by this view, its stacks are decoded once accessed.
+	 *
+	 * @return the inventory context
+	 */
+	default InventoryProvider.Context toContext() {
+		return new InventoryProvider.Context(new InventoryViewList(this), this.getColor());
+	}
+
+	/**
+	 * Returns a view of an inventory context.
+	 * <p>
+	 * Contexts backed by a view give back that view, so their stacks stay lazily decoded.
+	 *
+	 * @param context the inventory context
+	 * @return the view
+	 */
+	static InventoryView of(InventoryProvider.Context context) {
+		if (context.inventory() instanceof InventoryViewList list)
+			return list.view();
+		return new ContextInventoryView(context);
+	}
+
+	/**
+	 * Returns a view of the items of the given block entity data, in the format of {@link net.minecraft.inventory.Inventories}.
+	 * <p>
+	 * The item data of each slot is copied, stacks are then decoded lazily.
+	 *
+	 * @param nbt the block entity data
+	 * @param size the count of slots of the inventory
+	 * @param color the color of the slots, may be {@code null}
+	 * @return the view
+	 */
+	static InventoryView ofBlockEntityNbt(NbtCompound nbt, int size, @Nullable DyeColor color) {
+		return new NbtInventoryView(nbt, size, color);
+	}
+}
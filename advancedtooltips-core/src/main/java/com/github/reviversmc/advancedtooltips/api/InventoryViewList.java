@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.minecraft.item.ItemStack;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Represents the stacks of an inventory view as a list, stacks are only decoded once accessed.
+ */
+final class InventoryViewList extends AbstractList<ItemStack> implements RandomAccess {
+	private final InventoryView view;
+
+	InventoryViewList(InventoryView view) {
+		this.view = view;
+	}
+
+	InventoryView view() {
+		return this.view;
+	}
+
+	@Override
+	public ItemStack get(int index) {
+		return this.view.getStack(index);
+	}
+
+	@Override
+	public int size() {
+		return this.view.size();
+	}
+}
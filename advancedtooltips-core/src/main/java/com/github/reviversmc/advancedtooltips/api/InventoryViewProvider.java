@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
+
+/**
+ * Provides a lazy inventory view for the given item stack.
+ * <p>
+ * Unlike {@link InventoryProvider}, the inventory is only decoded as far as it is shown,
+ * and providers may declare a cache key so their views are memoized.
+ */
+@Environment(EnvType.CLIENT)
+@FunctionalInterface
+public interface InventoryViewProvider {
+	/**
+	 * Returns the inventory view of the given item stack.
+	 *
+	 * @param stack the item stack
+	 * @param config the configuration of the container, may be {@code null}
+	 * @return {@code null} if no inventory view could be created, otherwise an inventory view
+	 */
+	@Nullable InventoryView getInventoryView(ItemStack stack, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config);
+
+	/**
+	 * Returns the cache key of the inventory view of the given item stack, stacks with equal keys must have equal views.
+	 * <p>
+	 * Views are memoized per key until the configuration changes, the key must not be modified afterwards.
+	 *
+	 * @param stack the item stack
+	 * @return the cache key, or {@code null} if the view of the stack must not be memoized
+	 */
+	default @Nullable Object getCacheKey(ItemStack stack) {
+		return null;
+	}
+
+	static @Nullable InventoryView searchInventoryViewOf(ItemStack stack, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config) {
+		return InventoryProviderManager.getInventoryView(stack, config);
+	}
+
+	/**
+	 * Registers an inventory view provider, can optionally be mapped to specific items.
+	 *
+	 * @param provider the inventory view provider to register
+	 * @param items if non-empty, the inventory view provider will be only registered for those items
+	 */
+	static void register(InventoryViewProvider provider, Item... items) {
+		// Monitors are named after the wrapped provider rather than after the wrapper.
+		var providerClass = provider instanceof NbtPathKey.Provider wrapper ? wrapper.provider().getClass() : provider.getClass();
+		InventoryProviderManager.register(provider, providerClass, items);
+	}
+
+	/**
+	 * Returns a provider declaring that the views of the given provider only depend on the item and on the NBT at the given path,
+	 * so they are memoized per item and NBT.
+	 *
+	 * @param provider the provider
+	 * @param path the keys leading to the NBT element the views depend on, from the root NBT of the stack
+	 * @return the provider with a cache key
+	 */
+	static InventoryViewProvider dependingOnNbt(InventoryViewProvider provider, String... path) {
+		return new NbtPathKey.Provider(provider, path);
+	}
+}
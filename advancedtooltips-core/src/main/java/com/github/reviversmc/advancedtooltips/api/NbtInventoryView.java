@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.util.DyeColor;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.Registry;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.reviversmc.advancedtooltips.tooltip.DecodeBudget;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents a lazy view of the items of block entity data.
+ * <p>
+ * The item data of each slot is copied up front, so the view never changes even if the stack does,
+ * stacks are decoded once accessed and then kept.
+ * Views may be shared between threads, decoded stacks are published atomically.
+ */
+final class NbtInventoryView implements InventoryView {
+	/**
+	 * The item data of each slot, or {@code null} if the slot is empty.
+	 */
+	private final @Nullable NbtCompound[] entries;
+	private final AtomicReferenceArray<ItemStack> stacks;
+	private final @Nullable DyeColor color;
+
+	NbtInventoryView(NbtCompound nbt, int size, @Nullable DyeColor color) {
+		var items = nbt.getList("Items", NbtElement.COMPOUND_TYPE);
+		var indices = new int[size];
+		this.entries = new NbtCompound[size];
+		this.stacks = new AtomicReferenceArray<>(size);
+		this.color = color;
+
+		// Every item is looked at, later items replace earlier ones in the same slot like in Inventories#readNbt.
+		Arrays.fill(indices, -1);
+		for (int i = 0; i < items.size(); i++) {
+			var itemNbt = items.getCompound(i);
+			int slot = itemNbt.getByte("Slot") & 255;
+			var id = itemNbt.getString("id");
+			if (slot < size && itemNbt.getByte("Count") > 0 && !id.isEmpty() && !id.equals("minecraft:air"))
+				indices[slot] = i;
+		}
+
+		// Only the data of the items which end up in a slot is copied.
+		for (int slot = 0; slot < size; slot++) {
+			if (indices[slot] != -1)
+				this.entries[slot] = items.getCompound(indices[slot]).copy();
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.entries.length;
+	}
+
+	@Override
+	public boolean isOccupied(int slot) {
+		return this.entries[slot] != null;
+	}
+
+	@Override
+	public ItemStack getStack(int slot) {
+		var itemNbt = this.entries[slot];
+		if (itemNbt == null)
+			return ItemStack.EMPTY;
+
+		var stack = this.stacks.get(slot);
+		if (stack == null) {
+			// Stacks over the decode budget are shown empty, but are decoded again on the next access.
+			if (!DecodeBudget.tryDecode(itemNbt))
+				return ItemStack.EMPTY;
+
+			// Concurrent decodes of the same slot give equal stacks, the first one published is kept.
+			stack = ItemStack.fromNbt(itemNbt);
+			if (!this.stacks.compareAndSet(slot, null, stack))
+				stack = this.stacks.get(slot);
+		}
+		return stack;
+	}
+
+	@Override
+	public Item getItem(int slot) {
+		var itemNbt = this.entries[slot];
+		if (itemNbt == null)
+			return Items.AIR;
+
+		var stack = this.stacks.get(slot);
+		if (stack != null)
+			return stack.getItem();
+
+		var id = Identifier.tryParse(itemNbt.getString("id"));
+		return id == null ? Items.AIR : Registry.ITEM.get(id);
+	}
+
+	@Override
+	public int getCount(int slot) {
+		var itemNbt = this.entries[slot];
+		if (itemNbt == null)
+			return 0;
+
+		var stack = this.stacks.get(slot);
+		if (stack != null)
+			return stack.getCount();
+		return itemNbt.getByte("Count");
+	}
+
+	@Override
+	public @Nullable DyeColor getColor() {
+		return this.color;
+	}
+}
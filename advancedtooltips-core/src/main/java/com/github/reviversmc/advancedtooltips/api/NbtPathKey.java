@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
+
+/**
+ * Represents the cache key of a view which only depends on the item and on the NBT at a given path.
+ *
+ * @param item the item
+ * @param element the NBT element at the path, or {@code null} if missing
+ */
+record NbtPathKey(Item item, @Nullable NbtElement element) {
+	static NbtPathKey of(ItemStack stack, String[] path) {
+		NbtElement element = stack.getNbt();
+		for (int i = 0; i < path.length && element != null; i++) {
+			element = element instanceof NbtCompound compound ? compound.get(path[i]) : null;
+		}
+		return new NbtPathKey(stack.getItem(), element);
+	}
+
+	/**
+	 * Returns a copy of this key which no longer shares its NBT with the stack.
+	 *
+	 * @return the copied key
+	 */
+	NbtPathKey copy() {
+		return new NbtPathKey(this.item, this.element == null ? null : this.element.copy());
+	}
+
+	/**
+	 * Represents a provider whose views only depend on the item and on the NBT at the given path.
+	 */
+	record Provider(InventoryViewProvider provider, String[] path) implements InventoryViewProvider {
+		@Override
+		public @Nullable InventoryView getInventoryView(ItemStack stack, @Nullable AdvancedTooltipsConfig.StorageContainerConfig config) {
+			return this.provider.getInventoryView(stack, config);
+		}
+
+		@Override
+		public Object getCacheKey(ItemStack stack) {
+			return NbtPathKey.of(stack, this.path);
+		}
+	}
+}
@@ -17,11 +17,11 @@
 
 package com.github.reviversmc.advancedtooltips.mixin;
 
+import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.block.*;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.item.TooltipContext;
 import net.minecraft.client.item.TooltipData;
-import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
@@ -35,10 +35,10 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
 import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
+import com.github.reviversmc.advancedtooltips.api.BulkTooltips;
 import com.github.reviversmc.advancedtooltips.api.InventoryProvider;
 import com.github.reviversmc.advancedtooltips.tooltip.*;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -59,20 +59,10 @@ public abstract class BlockItemMixin extends Item {
 
 		if (effectsConfig.hasBeacon() && this.getBlock() instanceof BeaconBlock) {
 			var blockEntityTag = BlockItem.getBlockEntityNbtFromStack(stack);
-			var effectsList = new ArrayList<StatusEffectInstance>();
-			var primary = AdvancedTooltips.getRawEffectFromTag(blockEntityTag, "Primary");
-			var secondary = AdvancedTooltips.getRawEffectFromTag(blockEntityTag, "Secondary");
+			var primary = AdvancedTooltips.getEffectFromTag(blockEntityTag, "Primary");
+			var secondary = AdvancedTooltips.getEffectFromTag(blockEntityTag, "Secondary");
 
-			if (primary != null && primary.equals(secondary)) {
-				primary = new StatusEffectInstance(primary.getEffectType(), 200, 1);
-				secondary = null;
-			}
-			if (primary != null)
-				effectsList.add(primary);
-			if (secondary != null)
-				effectsList.add(secondary);
-
-			return Optional.of(new StatusEffectTooltipComponent(effectsList, 1F));
+			return Optional.of(StaticTooltipComponents.getBeacon(primary, secondary));
 		} else if (this.getBlock() instanceof BeehiveBlock) {
 			var data = BeesTooltipComponent.of(stack);
 			if (data.isPresent()) return data;
@@ -94,7 +84,7 @@ public abstract class BlockItemMixin extends Item {
 			}
 
 			if (context != null) {
-				return InventoryTooltipComponent.of(stack, currentBlockConfig.isCompact(), context);
+				return InventoryTooltipComponent.of(stack, currentBlockConfig.isCompact() || TooltipFrameBudget.forcesCompact(), context);
 			}
 		}
 
@@ -103,7 +93,9 @@ public abstract class BlockItemMixin extends Item {
 
 	@Inject(method = "appendTooltip", at = @At("HEAD"), cancellable = true)
 	private void onAppendTooltip(ItemStack stack, World world, List<Text> tooltip, TooltipContext context, CallbackInfo ci) {
-		if (this.getBlock() instanceof ShulkerBoxBlock && !Screen.hasControlDown()) {
+		// The vanilla content lines are kept in bulk tooltips as they are searchable, keys are not polled off the render thread.
+		if (this.getBlock() instanceof ShulkerBoxBlock && RenderSystem.isOnRenderThread()
+				&& !BulkTooltips.isActive() && !Screen.hasControlDown()) {
 			AdvancedTooltips.appendBlockItemTooltip(stack, this.getBlock(), tooltip);
 			ci.cancel();
 		}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.mixin;
+
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
+import net.minecraft.client.gui.DrawableHelper;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.screen.slot.Slot;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.reviversmc.advancedtooltips.tooltip.ContainerContentsIndex;
+
+@Mixin(HandledScreen.class)
+public abstract class HandledScreenMixin<T extends ScreenHandler> {
+	@Unique
+	private static final int HOLDER_HIGHLIGHT_COLOR = 0x80ffd700;
+
+	@Shadow
+	@Final
+	protected T handler;
+
+	@Shadow
+	@Nullable
+	protected Slot focusedSlot;
+
+	@Unique
+	private IntSet advancedtooltips$highlightedSlots = IntSets.EMPTY_SET;
+
+	@Inject(method = "tick", at = @At("HEAD"))
+	private void onTick(CallbackInfo ci) {
+		ContainerContentsIndex.update(this.handler);
+	}
+
+	@Inject(method = "render", at = @At("HEAD"))
+	private void onRender(MatrixStack matrices, int mouseX, int mouseY, float delta, CallbackInfo ci) {
+		if (Screen.hasAltDown() && this.focusedSlot != null && this.focusedSlot.hasStack())
+			this.advancedtooltips$highlightedSlots = ContainerContentsIndex.getHolders(this.handler, this.focusedSlot.getStack().getItem());
+		else
+			this.advancedtooltips$highlightedSlots = IntSets.EMPTY_SET;
+	}
+
+	@Inject(method = "drawSlot", at = @At("TAIL"))
+	private void onDrawSlot(MatrixStack matrices, Slot slot, CallbackInfo ci) {
+		if (this.advancedtooltips$highlightedSlots.contains(slot.id)) {
+			// Drawn above the slot item, below the tooltip.
+			matrices.push();
+			matrices.translate(0, 0, 300);
+			DrawableHelper.fill(matrices, slot.x, slot.y, slot.x + 16, slot.y + 16, HOLDER_HIGHLIGHT_COLOR);
+			matrices.pop();
+		}
+	}
+}
@@ -17,20 +17,14 @@
 
 package com.github.reviversmc.advancedtooltips.mixin;
 
-import net.fabricmc.fabric.api.client.rendering.v1.TooltipComponentCallback;
+import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.client.item.TooltipContext;
 import net.minecraft.client.item.TooltipData;
-import net.minecraft.entity.effect.StatusEffect;
-import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.*;
 import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtElement;
-import net.minecraft.potion.PotionUtil;
 import net.minecraft.text.Text;
-import net.minecraft.util.Formatting;
 import net.minecraft.util.dynamic.GlobalPos;
-import net.minecraft.util.math.BlockPos;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -38,10 +32,11 @@ import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
-import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 
 import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
 import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
+import com.github.reviversmc.advancedtooltips.HiddenEffectItems;
+import com.github.reviversmc.advancedtooltips.api.BulkTooltips;
 import com.github.reviversmc.advancedtooltips.tooltip.*;
 
 import java.util.ArrayList;
@@ -61,23 +56,24 @@ public abstract class ItemStackMixin {
 	public abstract NbtCompound getNbt();
 
 	@Unique
-	private final ThreadLocal<List<Text>> advancedtooltips$tooltipList = new ThreadLocal<>();
-
-	@Inject(
-			method = "getTooltip",
-			at = @At(value = "INVOKE", target = "Lnet/minecraft/item/ItemStack;hasCustomName()Z"),
-			locals = LocalCapture.CAPTURE_FAILHARD
-	)
-	private void onGetTooltipBeing(PlayerEntity player, TooltipContext context, CallbackInfoReturnable<List<Text>> cir, List<Text> list) {
-		this.advancedtooltips$tooltipList.set(list);
-	}
+	private static final ThreadLocal<List<TooltipData>> advancedtooltips$datas = ThreadLocal.withInitial(ArrayList::new);
+	/**
+	 * The stack whose tooltip data is being built within the decode budget, only accessed on the render thread.
+	 */
+	@Unique
+	private static @Nullable ItemStack advancedtooltips$budgetedStack;
 
 	@Inject(
 			method = "getTooltip",
 			at = @At(value = "RETURN")
 	)
 	private void onGetTooltip(PlayerEntity player, TooltipContext context, CallbackInfoReturnable<List<Text>> cir) {
-		var tooltip = this.advancedtooltips$tooltipList.get();
+		// Tooltips built in bulk, like for search indexes, do not need those lines.
+		if (BulkTooltips.isActive())
+			return;
+
+		// The returned list is the one built by the method, so no state is kept between injections and concurrent calls are safe.
+		var tooltip = cir.getReturnValue();
 		AdvancedTooltipsConfig.AdvancedConfig advancedTooltipsConfig = AdvancedTooltips.getConfig().getAdvancedConfig();
 
 		if (advancedTooltipsConfig.hasLodestoneCoords() && this.getItem() instanceof CompassItem && CompassItem.hasLodestone((ItemStack) (Object) this)) {
@@ -86,29 +82,60 @@ public abstract class ItemStackMixin {
 			GlobalPos globalPos = CompassItem.getLodestonePosition(nbt);
 
 			if (globalPos != null) {
-				BlockPos pos = globalPos.getPos();
-				var posText = Text.literal(String.format("X: %d, Y: %d, Z: %d", pos.getX(), pos.getY(), pos.getZ()))
-						.formatted(Formatting.GOLD);
-
-				tooltip.add(Text.translatable("advancedtooltips.tooltip.lodestone_compass.target", posText).formatted(Formatting.GRAY));
-				tooltip.add(Text.translatable("advancedtooltips.tooltip.lodestone_compass.dimension",
-								Text.literal(globalPos.getDimension().getValue().toString()).formatted(Formatting.GOLD))
-						.formatted(Formatting.GRAY));
+				TooltipLineCache.appendLodestoneLines(tooltip, globalPos);
 			}
 		}
 
 		int repairCost;
 		if (advancedTooltipsConfig.hasRepairCost() && (repairCost = this.getRepairCost()) != 0) {
-			tooltip.add(Text.translatable("advancedtooltips.tooltip.repair_cost", repairCost)
-					.formatted(Formatting.GRAY));
+			tooltip.add(TooltipLineCache.getRepairCostLine(repairCost));
+		}
+	}
+
+	@Inject(method = "getTooltipData", at = @At("HEAD"), cancellable = true)
+	private void onGetTooltipDataPre(CallbackInfoReturnable<Optional<TooltipData>> info) {
+		// Tooltip data is only used to render tooltips, off the render thread the original data is passed through without additions.
+		if (!RenderSystem.isOnRenderThread())
+			return;
+
+		var stack = (ItemStack) (Object) this;
+		if (advancedtooltips$budgetedStack == stack) {
+			advancedtooltips$budgetedStack = null;
+			return;
+		}
+
+		// The method is called again within the budget, so the budget ends even if the item or another injection throws.
+		advancedtooltips$budgetedStack = stack;
+		DecodeBudget.begin(stack);
+		try {
+			info.setReturnValue(stack.getTooltipData());
+		} finally {
+			advancedtooltips$budgetedStack = null;
+			DecodeBudget.end();
 		}
 	}
 
 	@Inject(method = "getTooltipData", at = @At("RETURN"), cancellable = true)
 	private void getTooltipData(CallbackInfoReturnable<Optional<TooltipData>> info) {
+		if (!RenderSystem.isOnRenderThread())
+			return;
+
 		// Data is the plural and datum is the singular actually, but no one cares
-		var datas = new ArrayList<TooltipData>();
-		info.getReturnValue().ifPresent(datas::add);
+		// The list is a scratch buffer of the current thread, a non-empty buffer would belong to an outer tooltip of the same thread.
+		var scratch = advancedtooltips$datas.get();
+		var datas = scratch.isEmpty() ? scratch : new ArrayList<TooltipData>();
+		try {
+			this.advancedtooltips$buildTooltipData(info, datas);
+		} finally {
+			datas.clear();
+		}
+	}
+
+	@Unique
+	private void advancedtooltips$buildTooltipData(CallbackInfoReturnable<Optional<TooltipData>> info, List<TooltipData> datas) {
+		var original = info.getReturnValue();
+		if (original.isPresent())
+			datas.add(original.get());
 
 		var config = AdvancedTooltips.getConfig();
 		var stack = (ItemStack) (Object) this;
@@ -117,39 +144,21 @@ public abstract class ItemStackMixin {
 			var comp = stack.getItem().getFoodComponent();
 
 			if (config.getFoodConfig().isEnabled()) {
-				datas.add(new FoodTooltipComponent(comp));
+				datas.add(StaticTooltipComponents.getFood(comp));
 			}
 
 			if (config.getEffectsConfig().hasPotions()) {
-				if (stack.isIn(AdvancedTooltips.HIDDEN_EFFECTS_TAG)
-						|| AdvancedTooltips.hiddenEffectsItems.contains(stack.getItem())) {
-					datas.add(new StatusEffectTooltipComponent());
+				if (HiddenEffectItems.isHidden(stack.getItem())) {
+					datas.add(EffectListCache.getHiddenComponent());
 				} else {
 					if (comp.getStatusEffects().size() > 0) {
-						datas.add(new StatusEffectTooltipComponent(comp.getStatusEffects()));
+						datas.add(StaticTooltipComponents.getFoodEffects(comp));
 					} else if (stack.getItem() instanceof SuspiciousStewItem) {
-						var nbt = stack.getNbt();
-						if (nbt != null && nbt.contains(SuspiciousStewItem.EFFECTS_KEY, NbtElement.LIST_TYPE)) {
-							var effects = new ArrayList<StatusEffectInstance>();
-							var effectsNbt = nbt.getList(SuspiciousStewItem.EFFECTS_KEY, NbtElement.COMPOUND_TYPE);
-
-							for (int i = 0; i < effectsNbt.size(); ++i) {
-								int duration = 160;
-								var effectNbt = effectsNbt.getCompound(i);
-								if (effectNbt.contains(SuspiciousStewItem.EFFECT_DURATION_KEY, NbtElement.INT_TYPE)) {
-									duration = effectNbt.getInt(SuspiciousStewItem.EFFECT_DURATION_KEY);
-								}
-
-								var statusEffect = StatusEffect.byRawId(effectNbt.getByte(SuspiciousStewItem.EFFECT_ID_KEY));
-								if (statusEffect != null) {
-									effects.add(new StatusEffectInstance(statusEffect, duration));
-								}
-							}
-
-							datas.add(new StatusEffectTooltipComponent(effects, 1.f));
-						}
+						var effects = EffectListCache.getSuspiciousStewComponent(stack);
+						if (effects != null)
+							datas.add(effects);
 					} else {
-						datas.add(new StatusEffectTooltipComponent(PotionUtil.getPotionEffects(stack), 1.f));
+						datas.add(EffectListCache.getPotionComponent(stack, 1.f));
 					}
 				}
 			}
@@ -157,21 +166,18 @@ public abstract class ItemStackMixin {
 
 		if (stack.getItem() instanceof ArmorItem armor && config.hasArmor()) {
 			int prot = armor.getMaterial().getProtectionAmount(armor.getSlotType());
-			datas.add(new ArmorTooltipComponent(prot));
+			datas.add(StaticTooltipComponents.getArmor(prot));
 		}
 
+		var truncated = DecodeBudget.getWarning();
+		if (truncated != null)
+			datas.add(truncated);
+
 		if (datas.size() == 1) {
-			info.setReturnValue(Optional.of(datas.get(0)));
+			if (original.isEmpty() || original.get() != datas.get(0))
+				info.setReturnValue(Optional.of(datas.get(0)));
 		} else if (datas.size() > 1) {
-			var comp = new CompoundTooltipComponent();
-			for (var data : datas) {
-				if (data instanceof ConvertibleTooltipData convertibleTooltipData) {
-					comp.addComponent(convertibleTooltipData.getComponent());
-				} else {
-					comp.addComponent(TooltipComponentCallback.EVENT.invoker().getComponent(data));
-				}
-			}
-			info.setReturnValue(Optional.of(comp));
+			info.setReturnValue(CompoundTooltipComponent.of(datas).toOptional());
 		}
 	}
 }
@@ -28,6 +28,7 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
+import com.github.reviversmc.advancedtooltips.api.BulkTooltips;
 
 import java.util.List;
 
@@ -36,6 +37,7 @@ public class LingeringPotionItemMixin {
 
 	@Inject(at = @At("HEAD"), method = "appendTooltip", cancellable = true)
 	public void appendTooltip(ItemStack stack, World world, List<Text> tooltip, TooltipContext context, CallbackInfo info) {
-		if (AdvancedTooltips.getConfig().getEffectsConfig().hasPotions()) info.cancel();
+		// The vanilla effect lines are kept in bulk tooltips as they are searchable.
+		if (AdvancedTooltips.getConfig().getEffectsConfig().hasPotions() && !BulkTooltips.isActive()) info.cancel();
 	}
 }
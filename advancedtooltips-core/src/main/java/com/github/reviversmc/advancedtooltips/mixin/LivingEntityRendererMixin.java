@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.mixin;
+
+import com.github.reviversmc.advancedtooltips.tooltip.EntityTooltipComponent;
+import net.minecraft.client.render.entity.LivingEntityRenderer;
+import net.minecraft.client.render.entity.feature.ArmorFeatureRenderer;
+import net.minecraft.client.render.entity.feature.CapeFeatureRenderer;
+import net.minecraft.client.render.entity.feature.ElytraFeatureRenderer;
+import net.minecraft.client.render.entity.feature.EnergySwirlOverlayFeatureRenderer;
+import net.minecraft.client.render.entity.feature.FeatureRenderer;
+import net.minecraft.client.render.entity.feature.HeadFeatureRenderer;
+import net.minecraft.client.render.entity.feature.HeldItemFeatureRenderer;
+import net.minecraft.client.render.entity.feature.ShoulderParrotFeatureRenderer;
+import net.minecraft.client.render.entity.feature.StuckObjectsFeatureRenderer;
+import net.minecraft.client.render.entity.feature.TridentRiptideFeatureRenderer;
+import net.minecraft.client.render.entity.model.EntityModel;
+import net.minecraft.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Skips the feature renderers which are barely visible at tooltip size during fast tooltip entity renders.
+ */
+@Mixin(LivingEntityRenderer.class)
+public abstract class LivingEntityRendererMixin<T extends LivingEntity, M extends EntityModel<T>> {
+	@Shadow
+	@Final
+	protected List<FeatureRenderer<T, M>> features;
+
+	@Unique
+	private List<FeatureRenderer<T, M>> advancedtooltips$fastFeatures;
+
+	@ModifyVariable(
+			method = "render(Lnet/minecraft/entity/LivingEntity;FFLnet/minecraft/client/util/math/MatrixStack;Lnet/minecraft/client/render/VertexConsumerProvider;I)V",
+			at = @At(value = "INVOKE_ASSIGN", target = "Ljava/util/List;iterator()Ljava/util/Iterator;")
+	)
+	private Iterator<FeatureRenderer<T, M>> onIterateFeatures(Iterator<FeatureRenderer<T, M>> features) {
+		if (!EntityTooltipComponent.isRenderingFast())
+			return features;
+
+		// Features are registered while the renderer is built, the filtered list can then be computed once.
+		if (this.advancedtooltips$fastFeatures == null)
+			this.advancedtooltips$fastFeatures = this.features.stream().filter(feature -> !advancedtooltips$isDetailFeature(feature)).toList();
+		return this.advancedtooltips$fastFeatures.iterator();
+	}
+
+	@Unique
+	private static boolean advancedtooltips$isDetailFeature(FeatureRenderer<?, ?> feature) {
+		return feature instanceof HeldItemFeatureRenderer
+				|| feature instanceof ArmorFeatureRenderer
+				|| feature instanceof ElytraFeatureRenderer
+				|| feature instanceof HeadFeatureRenderer
+				|| feature instanceof StuckObjectsFeatureRenderer
+				|| feature instanceof EnergySwirlOverlayFeatureRenderer
+				|| feature instanceof TridentRiptideFeatureRenderer
+				|| feature instanceof ShoulderParrotFeatureRenderer
+				|| feature instanceof CapeFeatureRenderer;
+	}
+}
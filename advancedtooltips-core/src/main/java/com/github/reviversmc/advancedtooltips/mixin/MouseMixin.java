@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.mixin;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.Mouse;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.reviversmc.advancedtooltips.tooltip.InventoryTooltipComponent;
+
+@Mixin(Mouse.class)
+public class MouseMixin {
+	@Shadow
+	@Final
+	private MinecraftClient client;
+
+	@Inject(method = "onMouseScroll", at = @At("HEAD"), cancellable = true)
+	private void onMouseScroll(long window, double horizontal, double vertical, CallbackInfo ci) {
+		if (window == this.client.getWindow().getHandle() && this.client.currentScreen != null && InventoryTooltipComponent.scroll(vertical))
+			ci.cancel();
+	}
+}
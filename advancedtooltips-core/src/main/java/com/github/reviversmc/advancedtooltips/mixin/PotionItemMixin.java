@@ -22,7 +22,6 @@ import net.minecraft.client.item.TooltipData;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.PotionItem;
-import net.minecraft.potion.PotionUtil;
 import net.minecraft.text.Text;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.Nullable;
@@ -33,7 +32,8 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
-import com.github.reviversmc.advancedtooltips.tooltip.StatusEffectTooltipComponent;
+import com.github.reviversmc.advancedtooltips.api.BulkTooltips;
+import com.github.reviversmc.advancedtooltips.tooltip.EffectListCache;
 
 import java.util.List;
 import java.util.Optional;
@@ -49,19 +49,28 @@ public abstract class PotionItemMixin extends Item {
 
 	@Inject(method = "appendTooltip", at = @At("HEAD"))
 	private void onAppendTooltipPre(ItemStack stack, @Nullable World world, List<Text> tooltip, TooltipContext context, CallbackInfo ci) {
+		// The vanilla effect lines are kept in bulk tooltips as they are searchable.
+		if (BulkTooltips.isActive())
+			return;
+
 		this.advancedtooltips$oldTooltipLength.set(tooltip.size());
 	}
 
 	@Inject(method = "appendTooltip", at = @At("RETURN"))
 	private void onAppendTooltipPost(ItemStack stack, World world, List<Text> tooltip, TooltipContext context, CallbackInfo info) {
+		Integer oldTooltipLength = this.advancedtooltips$oldTooltipLength.get();
+		if (oldTooltipLength == null)
+			return;
+
+		this.advancedtooltips$oldTooltipLength.remove();
 		if (AdvancedTooltips.getConfig().getEffectsConfig().hasPotions()) {
-			AdvancedTooltips.removeVanillaTooltips(tooltip, this.advancedtooltips$oldTooltipLength.get());
+			AdvancedTooltips.removeVanillaTooltips(tooltip, oldTooltipLength);
 		}
 	}
 
 	@Override
 	public Optional<TooltipData> getTooltipData(ItemStack stack) {
 		if (!AdvancedTooltips.getConfig().getEffectsConfig().hasPotions()) return super.getTooltipData(stack);
-		return Optional.of(new StatusEffectTooltipComponent(PotionUtil.getPotionEffects(stack), 1.f));
+		return Optional.of(EffectListCache.getPotionComponent(stack, 1.f));
 	}
 }
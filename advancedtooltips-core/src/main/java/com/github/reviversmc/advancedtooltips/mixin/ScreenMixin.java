@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.mixin;
+
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.tooltip.TooltipComponent;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.item.ItemStack;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.reviversmc.advancedtooltips.tooltip.TooltipDwell;
+import com.github.reviversmc.advancedtooltips.tooltip.TooltipFrameBudget;
+
+import java.util.List;
+
+@Mixin(Screen.class)
+public class ScreenMixin {
+	@Inject(method = "renderTooltip(Lnet/minecraft/client/util/math/MatrixStack;Lnet/minecraft/item/ItemStack;II)V", at = @At("HEAD"))
+	private void onRenderItemTooltip(MatrixStack matrices, ItemStack stack, int x, int y, CallbackInfo ci) {
+		TooltipDwell.onHover(stack);
+	}
+
+	@Inject(method = "renderTooltipFromComponents", at = @At("HEAD"))
+	private void onRenderTooltipPre(MatrixStack matrices, List<TooltipComponent> components, int x, int y, CallbackInfo ci) {
+		TooltipFrameBudget.beginDraw();
+	}
+
+	@Inject(method = "renderTooltipFromComponents", at = @At("RETURN"))
+	private void onRenderTooltipPost(MatrixStack matrices, List<TooltipComponent> components, int x, int y, CallbackInfo ci) {
+		TooltipFrameBudget.endDraw();
+	}
+}
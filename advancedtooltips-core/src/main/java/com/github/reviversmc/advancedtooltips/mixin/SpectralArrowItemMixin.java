@@ -18,17 +18,14 @@
 package com.github.reviversmc.advancedtooltips.mixin;
 
 import net.minecraft.client.item.TooltipData;
-import net.minecraft.entity.effect.StatusEffectInstance;
-import net.minecraft.entity.effect.StatusEffects;
 import net.minecraft.item.ArrowItem;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.SpectralArrowItem;
 import org.spongepowered.asm.mixin.Mixin;
 
 import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
-import com.github.reviversmc.advancedtooltips.tooltip.StatusEffectTooltipComponent;
+import com.github.reviversmc.advancedtooltips.tooltip.StaticTooltipComponents;
 
-import java.util.Collections;
 import java.util.Optional;
 
 @Mixin(SpectralArrowItem.class)
@@ -40,6 +37,6 @@ public class SpectralArrowItemMixin extends ArrowItem {
 	@Override
 	public Optional<TooltipData> getTooltipData(ItemStack stack) {
 		if (!AdvancedTooltips.getConfig().getEffectsConfig().hasSpectralArrow()) return super.getTooltipData(stack);
-		return Optional.of(new StatusEffectTooltipComponent(Collections.singletonList(new StatusEffectInstance(StatusEffects.GLOWING, 200, 0)), 1.f));
+		return Optional.of(StaticTooltipComponents.getSpectralArrow());
 	}
 }
@@ -17,7 +17,6 @@
 
 package com.github.reviversmc.advancedtooltips.tooltip;
 
-import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.item.TooltipData;
@@ -50,16 +49,11 @@ public class ArmorStandTooltipComponent extends EntityTooltipComponent<AdvancedT
 		if (!entitiesConfig.getArmorStandConfig().isEnabled())
 			return Optional.empty();
 
-		var client = MinecraftClient.getInstance();
-		var entity = entityType.create(client.world);
-		assert entity != null;
+		var entity = getPreviewEntity(entityType, itemNbt, null);
+		// No entity is created off the render thread, nor from data over the decode budget.
+		if (entity == null)
+			return Optional.empty();
 		adjustEntity(entity, itemNbt, entitiesConfig);
-		var itemEntityNbt = itemNbt.getCompound("EntityTag").copy();
-		var entityTag = entity.writeNbt(new NbtCompound());
-		var uuid = entity.getUuid();
-		entityTag.copyFrom(itemEntityNbt);
-		entity.setUuid(uuid);
-		entity.readNbt(entityTag);
 		return Optional.of(new ArmorStandTooltipComponent(entitiesConfig.getArmorStandConfig(), entity));
 	}
 
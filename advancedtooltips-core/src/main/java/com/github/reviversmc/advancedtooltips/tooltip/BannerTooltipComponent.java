@@ -82,6 +82,9 @@ public class BannerTooltipComponent implements ConvertibleTooltipData, TooltipCo
 
 	@Override
 	public void drawItems(TextRenderer textRenderer, int x, int y, MatrixStack matrices, ItemRenderer itemRenderer, int z) {
+		if (!TooltipDwell.isSettled())
+			return;
+
 		DiffuseLighting.setupFlatGuiLighting();
 		matrices.push();
 		matrices.translate(x + 8, y + 8, z);
@@ -27,7 +27,6 @@ import net.minecraft.client.item.TooltipData;
 import net.minecraft.client.render.item.ItemRenderer;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityType;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
@@ -40,7 +39,6 @@ import net.minecraft.util.Identifier;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Function;
 
 import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
 import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
@@ -53,21 +51,27 @@ public class BeesTooltipComponent extends EntityTooltipComponent<AdvancedTooltip
 
 	private final List<Bee> bees = new ArrayList<>();
 	private final int honeyLevel;
+	private final boolean hasCustomNames;
 
 	public BeesTooltipComponent(AdvancedTooltipsConfig.BeeEntityConfig config, int honeyLevel, NbtList bees) {
 		super(config);
 		this.honeyLevel = honeyLevel;
 
 		bees.stream().map(nbt -> (NbtCompound) nbt).forEach(nbt -> {
-			var bee = nbt.getCompound("EntityData");
-			bee.remove("UUID");
-			bee.remove("Passengers");
-			bee.remove("Leash");
-			var entity = EntityType.loadEntityWithPassengers(bee, this.client.world, Function.identity());
+			var entity = getPreviewEntity(nbt.getCompound("EntityData"));
 			if (entity != null) {
 				this.bees.add(new Bee(nbt.getInt("TicksInHive"), entity));
 			}
 		});
+
+		boolean hasCustomNames = false;
+		for (var bee : this.bees) {
+			if (bee.bee().hasCustomName()) {
+				hasCustomNames = true;
+				break;
+			}
+		}
+		this.hasCustomNames = hasCustomNames;
 	}
 
 	public static Optional<TooltipData> of(ItemStack stack) {
@@ -125,11 +129,13 @@ public class BeesTooltipComponent extends EntityTooltipComponent<AdvancedTooltip
 			matrices.translate(2, 4, z);
 
 			int xOffset = x;
+			int beesY = y + (this.shouldRenderCustomNames() ? 8 : 0);
+			this.beginEntityBatch();
 			for (var bee : this.bees) {
-				this.renderEntity(matrices, xOffset, y + (this.shouldRenderCustomNames() ? 8 : 0), bee.bee(), bee.ticksInHive(),
-						this.config.shouldSpin(), true);
+				this.renderEntity(matrices, xOffset, beesY, bee.bee(), bee.ticksInHive(), this.config.shouldSpin(), true);
 				xOffset += 26;
 			}
+			this.endEntityBatch(matrices);
 		}
 
 		if (config.shouldShowHoney()) {
@@ -154,8 +160,7 @@ public class BeesTooltipComponent extends EntityTooltipComponent<AdvancedTooltip
 
 	@Override
 	protected boolean shouldRenderCustomNames() {
-		return this.bees.stream().map(bee -> bee.bee().hasCustomName()).reduce(false, (first, second) -> first || second)
-				&& (this.config.shouldAlwaysShowName() || Screen.hasControlDown());
+		return this.hasCustomNames && (this.config.shouldAlwaysShowName() || Screen.hasControlDown());
 	}
 
 	record Bee(int ticksInHive, Entity bee) {
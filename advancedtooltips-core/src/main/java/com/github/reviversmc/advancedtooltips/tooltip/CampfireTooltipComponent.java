@@ -27,7 +27,6 @@ import net.minecraft.client.gui.tooltip.TooltipComponent;
 import net.minecraft.client.item.TooltipData;
 import net.minecraft.client.render.item.ItemRenderer;
 import net.minecraft.client.util.math.MatrixStack;
-import net.minecraft.inventory.Inventories;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.Identifier;
@@ -59,7 +58,7 @@ public class CampfireTooltipComponent implements ConvertibleTooltipData, Tooltip
 			return Optional.empty();
 
 		var inventory = DefaultedList.ofSize(4, ItemStack.EMPTY);
-		Inventories.readNbt(nbt, inventory);
+		DecodeBudget.readInventory(nbt, inventory);
 
 		boolean empty = true;
 		for (var item : inventory) {
@@ -103,13 +102,16 @@ public class CampfireTooltipComponent implements ConvertibleTooltipData, Tooltip
 	public void drawItems(TextRenderer textRenderer, int xOffset, int yOffset, MatrixStack matrices, ItemRenderer itemRenderer, int z) {
 		int x = 1 + 18 * 2;
 		int y = 1 + 18 * 2;
+		boolean drawStacks = TooltipDwell.isSettled();
 
 		for (int i = 0; i < this.inventory.size(); i++) {
 			var stack = this.inventory.get(i);
 
 			InventoryTooltipComponent.drawSlot(matrices, x + xOffset - 1, y + yOffset - 1, z, null);
-			itemRenderer.renderInGuiWithOverrides(stack, xOffset + x, yOffset + y);
-			itemRenderer.renderGuiItemOverlay(textRenderer, stack, xOffset + x, yOffset + y);
+			if (drawStacks) {
+				itemRenderer.renderInGuiWithOverrides(stack, xOffset + x, yOffset + y);
+				itemRenderer.renderGuiItemOverlay(textRenderer, stack, xOffset + x, yOffset + y);
+			}
 
 			if (i == 1)
 				y -= 18 * 2;
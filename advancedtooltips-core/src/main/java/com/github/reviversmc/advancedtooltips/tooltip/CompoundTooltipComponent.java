@@ -18,22 +18,117 @@
 package com.github.reviversmc.advancedtooltips.tooltip;
 
 import com.google.common.collect.Lists;
+import net.fabricmc.fabric.api.client.rendering.v1.TooltipComponentCallback;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.tooltip.TooltipComponent;
+import net.minecraft.client.item.TooltipData;
 import net.minecraft.client.render.VertexConsumerProvider.Immediate;
 import net.minecraft.client.render.item.ItemRenderer;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.util.math.Matrix4f;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 public class CompoundTooltipComponent implements TooltipComponent, ConvertibleTooltipData {
+	/**
+	 * Count of recent compounds kept per thread to be reused.
+	 */
+	private static final int POOL_SIZE = 8;
+	private static final ThreadLocal<Pool> POOL = ThreadLocal.withInitial(Pool::new);
+	private static final LongAdder CREATED = new LongAdder();
+	private static final LongAdder REUSED = new LongAdder();
+
 	private final List<TooltipComponent> components = Lists.newArrayList();
+	private final TooltipData @Nullable [] sources;
+	private final Optional<TooltipData> optional = Optional.of(this);
+
+	public CompoundTooltipComponent() {
+		this.sources = null;
+	}
+
+	private CompoundTooltipComponent(List<TooltipData> datas) {
+		// The data is copied, callers may clear and reuse their list once the compound is built.
+		this.sources = datas.toArray(new TooltipData[0]);
+		for (var data : this.sources) {
+			if (data instanceof ConvertibleTooltipData convertibleTooltipData) {
+				this.addComponent(convertibleTooltipData.getComponent());
+			} else {
+				this.addComponent(TooltipComponentCallback.EVENT.invoker().getComponent(data));
+			}
+		}
+	}
+
+	/**
+	 * Returns the compound of the given tooltip data.
+	 * <p>
+	 * Recent compounds are pooled per thread, a compound of the exact same data instances is returned as is,
+	 * so tooltips built from shared components do not allocate a new compound every frame.
+	 * Compounds returned by this method must not be modified.
+	 *
+	 * @param datas the tooltip data, which is copied and not kept
+	 * @return the compound
+	 */
+	public static CompoundTooltipComponent of(List<TooltipData> datas) {
+		var pool = POOL.get();
+		for (var compound : pool.compounds) {
+			if (compound != null && compound.hasSources(datas)) {
+				REUSED.increment();
+				return compound;
+			}
+		}
+
+		CREATED.increment();
+		var compound = new CompoundTooltipComponent(datas);
+		pool.compounds[pool.next] = compound;
+		pool.next = (pool.next + 1) % POOL_SIZE;
+		return compound;
+	}
+
+	/**
+	 * Returns the count of compounds created through {@link #of(List)}, which is the count of compound allocations.
+	 *
+	 * @return the count of created compounds
+	 */
+	public static long getCreatedCount() {
+		return CREATED.sum();
+	}
+
+	/**
+	 * Returns the count of compounds reused from the pool by {@link #of(List)}, which is the count of avoided compound allocations.
+	 *
+	 * @return the count of reused compounds
+	 */
+	public static long getReusedCount() {
+		return REUSED.sum();
+	}
+
+	private boolean hasSources(List<TooltipData> datas) {
+		if (this.sources == null || this.sources.length != datas.size())
+			return false;
+
+		for (int i = 0; i < this.sources.length; i++) {
+			if (this.sources[i] != datas.get(i))
+				return false;
+		}
+		return true;
+	}
 
 	public void addComponent(TooltipComponent component) {
 		components.add(component);
 	}
 
+	/**
+	 * Returns this compound as tooltip data, the same optional instance is returned every time.
+	 *
+	 * @return the optional of this compound
+	 */
+	public Optional<TooltipData> toOptional() {
+		return this.optional;
+	}
+
 	@Override
 	public TooltipComponent getComponent() {
 		return this;
@@ -76,4 +171,9 @@ public class CompoundTooltipComponent implements TooltipComponent, ConvertibleTo
 			yOff += comp.getHeight();
 		}
 	}
+
+	private static class Pool {
+		private final CompoundTooltipComponent[] compounds = new CompoundTooltipComponent[POOL_SIZE];
+		private int next;
+	}
 }
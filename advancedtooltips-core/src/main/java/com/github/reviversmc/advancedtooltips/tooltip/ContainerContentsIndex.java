@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
+import com.github.reviversmc.advancedtooltips.api.InventoryViewProvider;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
+import net.minecraft.item.BlockItem;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.util.registry.Registry;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Indexes which slots of the open screen hold containers holding a given item, covering both the screen and the player inventory.
+ * <p>
+ * Slots are compared by stack reference every tick, only the slots whose stack changed are decoded again,
+ * through the same inventory providers as tooltips.
+ * Lookups are then a single map access.
+ * <p>
+ * The index is only used on the render thread.
+ */
+public final class ContainerContentsIndex {
+	private static @Nullable ScreenHandler handler;
+	private static ItemStack[] indexedStacks = new ItemStack[0];
+	/**
+	 * The raw identifiers of the items held by the container in each slot, or {@code null} if the slot holds no container.
+	 */
+	private static IntSet[] slotContents = new IntSet[0];
+	/**
+	 * Maps the raw identifier of an item to the slots holding a container holding it.
+	 */
+	private static final Int2ObjectOpenHashMap<IntOpenHashSet> HOLDERS = new Int2ObjectOpenHashMap<>();
+
+	private ContainerContentsIndex() {
+		throw new UnsupportedOperationException("ContainerContentsIndex only contains static-definitions");
+	}
+
+	/**
+	 * Updates the index from the slots of the given screen handler, called every tick while a handled screen is open.
+	 *
+	 * @param screenHandler the screen handler of the open screen
+	 */
+	public static void update(ScreenHandler screenHandler) {
+		if (!AdvancedTooltips.getConfig().getContainersConfig().hasHighlightHolders()) {
+			if (handler != null)
+				clear();
+			return;
+		}
+
+		var slots = screenHandler.slots;
+		if (screenHandler != handler || slots.size() != indexedStacks.length) {
+			clear();
+			handler = screenHandler;
+			indexedStacks = new ItemStack[slots.size()];
+			slotContents = new IntSet[slots.size()];
+		}
+
+		for (int i = 0; i < slots.size(); i++) {
+			var stack = slots.get(i).getStack();
+			if (stack == indexedStacks[i])
+				continue;
+
+			indexedStacks[i] = stack;
+			var oldContents = slotContents[i];
+			if (oldContents != null) {
+				for (int id : oldContents) {
+					var holders = HOLDERS.get(id);
+					holders.remove(i);
+					if (holders.isEmpty())
+						HOLDERS.remove(id);
+				}
+			}
+
+			var contents = decode(stack);
+			slotContents[i] = contents;
+			if (contents != null) {
+				for (int id : contents) {
+					HOLDERS.computeIfAbsent(id, k -> new IntOpenHashSet()).add(i);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the indices of the slots of the given screen handler which hold a container holding the given item.
+	 *
+	 * @param screenHandler the screen handler of the open screen
+	 * @param item the item to look for
+	 * @return the slot indices, must not be modified
+	 */
+	public static IntSet getHolders(ScreenHandler screenHandler, Item item) {
+		if (screenHandler != handler)
+			return IntSets.EMPTY_SET;
+
+		IntSet holders = HOLDERS.get(Registry.ITEM.getRawId(item));
+		return holders == null ? IntSets.EMPTY_SET : holders;
+	}
+
+	/**
+	 * Clears the index, it is rebuilt on the next update.
+	 */
+	public static void clear() {
+		handler = null;
+		indexedStacks = new ItemStack[0];
+		slotContents = new IntSet[0];
+		HOLDERS.clear();
+	}
+
+	private static @Nullable IntSet decode(ItemStack stack) {
+		// Container inventories are stored in the stack data, stacks without data are skipped before looking for a provider.
+		if (stack.isEmpty() || !stack.hasNbt())
+			return null;
+
+		var config = stack.getItem() instanceof BlockItem blockItem
+				? AdvancedTooltips.getConfig().getContainersConfig().forBlock(blockItem.getBlock())
+				: null;
+
+		DecodeBudget.begin(stack);
+		try {
+			var view = InventoryViewProvider.searchInventoryViewOf(stack, config);
+			if (view == null)
+				return null;
+
+			var contents = new IntOpenHashSet();
+			for (int slot = 0; slot < view.size(); slot++) {
+				if (!view.isOccupied(slot))
+					continue;
+
+				var content = view.getStack(slot);
+				if (!content.isEmpty())
+					contents.add(Registry.ITEM.getRawId(content.getItem()));
+			}
+			return contents.isEmpty() ? null : contents;
+		} finally {
+			DecodeBudget.end();
+		}
+	}
+}
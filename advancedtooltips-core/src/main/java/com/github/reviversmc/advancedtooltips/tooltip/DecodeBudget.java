@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
+
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import net.minecraft.client.gui.tooltip.TooltipComponent;
+import net.minecraft.inventory.Inventories;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.AbstractNbtList;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.Util;
+import net.minecraft.util.collection.DefaultedList;
+import net.minecraft.util.registry.Registry;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+
+/**
+ * Bounds how much item data a single tooltip may decode, so crafted items cannot stall the client.
+ * <p>
+ * The budget is counted in NBT nodes, in estimated bytes and in wall time, and is shared by every decode of the tooltip being built.
+ * Data over the budget is not decoded, the tooltip is then truncated and shows a warning.
+ * Outside of a tooltip, each decode is checked against the node and byte limits on its own.
+ */
+public final class DecodeBudget {
+	private static final int MAX_NODES = 16384;
+	private static final int MAX_BYTES = 256 * 1024;
+	private static final long MAX_TIME = 5_000_000L;
+	private static final int MAX_LOGGED_FINGERPRINTS = 1024;
+
+	private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+	/**
+	 * The fingerprints of the data logged recently, the oldest ones are forgotten first so new offenders are still logged.
+	 */
+	private static final ObjectLinkedOpenHashSet<String> LOGGED_FINGERPRINTS = new ObjectLinkedOpenHashSet<>();
+	private static final ConvertibleTooltipData TRUNCATED = () -> TooltipComponent.of(
+			Text.translatable("advancedtooltips.tooltip.truncated").formatted(Formatting.RED).asOrderedText()
+	);
+
+	private DecodeBudget() {
+		throw new UnsupportedOperationException("DecodeBudget only contains static-definitions");
+	}
+
+	/**
+	 * Starts the budget of the tooltip data of the given stack on the current thread.
+	 * <p>
+	 * Nested calls share the budget of the outermost one. Every call must be matched by a call to {@link #end()} in a {@code finally} block.
+	 *
+	 * @param stack the stack whose tooltip data is being built
+	 */
+	public static void begin(ItemStack stack) {
+		var state = STATE.get();
+		if (state.depth == 0) {
+			state.stack = stack;
+			state.start = Util.getMeasuringTimeNano();
+			state.nodes = 0;
+			state.bytes = 0;
+			state.exceeded = false;
+		}
+		state.depth++;
+	}
+
+	/**
+	 * Ends the budget started by the matching {@link #begin(ItemStack)} call.
+	 */
+	public static void end() {
+		var state = STATE.get();
+		if (state.depth > 0 && --state.depth == 0)
+			state.stack = null;
+	}
+
+	/**
+	 * Returns the warning to add to the outermost tooltip being built if its data was truncated.
+	 *
+	 * @return the warning, or {@code null} if no data was truncated or if the current tooltip is nested in another one
+	 */
+	public static @Nullable ConvertibleTooltipData getWarning() {
+		var state = STATE.get();
+		return state.depth == 1 && state.exceeded ? TRUNCATED : null;
+	}
+
+	/**
+	 * Returns whether the current tooltip went over its budget.
+	 *
+	 * @return {@code true} if the tooltip is truncated, or {@code false} otherwise
+	 */
+	public static boolean isExceeded() {
+		var state = STATE.get();
+		return state.depth != 0 && state.exceeded;
+	}
+
+	/**
+	 * Charges the given data to the budget before it is decoded.
+	 * <p>
+	 * The data is walked at most up to the remaining budget, so oversized data is rejected early.
+	 *
+	 * @param data the data about to be decoded
+	 * @return {@code true} if the data may be decoded, or {@code false} if it goes over the budget
+	 */
+	public static boolean tryDecode(@Nullable NbtElement data) {
+		if (data == null)
+			return true;
+
+		var state = STATE.get();
+		boolean inTooltip = state.depth != 0;
+		if (inTooltip && state.exceeded)
+			return false;
+
+		int nodes = inTooltip ? state.nodes : 0;
+		long bytes = inTooltip ? state.bytes : 0;
+		long start = inTooltip ? state.start : -1;
+
+		var queue = new ArrayDeque<NbtElement>();
+		queue.push(data);
+		nodes++;
+		boolean late = false;
+		// Hash of the walked data, the same data is always walked in the same order so it fingerprints the data for the logs.
+		long hash = 0;
+		// Children are counted as soon as they are queued, so huge compounds and lists are rejected without being queued entirely.
+		while (!queue.isEmpty() && nodes <= MAX_NODES && bytes <= MAX_BYTES) {
+			var element = queue.pop();
+			bytes += getShallowSize(element);
+			hash = hash * 31 + getShallowHash(element);
+
+			if (element instanceof NbtCompound compound) {
+				for (var key : compound.getKeys()) {
+					if (++nodes > MAX_NODES)
+						break;
+					bytes += key.length() * 2L;
+					hash = hash * 31 + key.hashCode();
+					queue.push(compound.get(key));
+				}
+			} else if (element instanceof NbtList list) {
+				for (int i = 0; i < list.size() && ++nodes <= MAX_NODES; i++) {
+					queue.push(list.get(i));
+				}
+			}
+
+			if (start != -1 && Util.getMeasuringTimeNano() - start > MAX_TIME) {
+				late = true;
+				break;
+			}
+		}
+
+		if (nodes > MAX_NODES || bytes > MAX_BYTES || late) {
+			reject(state, nodes > MAX_NODES ? "nodes" : bytes > MAX_BYTES ? "bytes" : "time", nodes, bytes, hash);
+			return false;
+		}
+
+		if (inTooltip) {
+			state.nodes = nodes;
+			state.bytes = bytes;
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the items of the given block entity data into the given inventory, like {@link Inventories#readNbt(NbtCompound, DefaultedList)},
+	 * stopping at the first item which goes over the budget.
+	 *
+	 * @param nbt the block entity data
+	 * @param inventory the inventory to fill
+	 */
+	public static void readInventory(NbtCompound nbt, DefaultedList<ItemStack> inventory) {
+		var items = nbt.getList("Items", NbtElement.COMPOUND_TYPE);
+		for (int i = 0; i < items.size(); i++) {
+			var itemNbt = items.getCompound(i);
+			if (!tryDecode(itemNbt))
+				return;
+
+			int slot = itemNbt.getByte("Slot") & 255;
+			if (slot < inventory.size())
+				inventory.set(slot, ItemStack.fromNbt(itemNbt));
+		}
+	}
+
+	private static long getShallowSize(NbtElement element) {
+		if (element instanceof NbtString string)
+			return 8 + string.asString().length() * 2L;
+		else if (element instanceof AbstractNbtList<?> list && !(element instanceof NbtList))
+			return 16 + list.size() * (long) switch (element.getType()) {
+				case NbtElement.LONG_ARRAY_TYPE -> 8;
+				case NbtElement.INT_ARRAY_TYPE -> 4;
+				default -> 1;
+			};
+		return 16;
+	}
+
+	private static long getShallowHash(NbtElement element) {
+		if (element instanceof NbtString string)
+			return string.asString().hashCode();
+		else if (element instanceof AbstractNbtList<?> list)
+			return element.getType() * 31L + list.size();
+		else if (element instanceof NbtCompound compound)
+			return element.getType() * 31L + compound.getSize();
+		return element.hashCode();
+	}
+
+	private static void reject(State state, String limit, int nodes, long bytes, long hash) {
+		if (state.depth == 0)
+			return;
+
+		state.exceeded = true;
+
+		if (state.stack == null)
+			return;
+
+		// The fingerprint only covers the data walked until the budget ran out, so copies of the same crafted item share it.
+		var nbt = state.stack.getNbt();
+		int rootKeys = nbt == null ? 0 : nbt.getSize();
+		var fingerprint = Registry.ITEM.getId(state.stack.getItem()) + "#" + rootKeys + "#" + Long.toHexString(hash);
+		synchronized (LOGGED_FINGERPRINTS) {
+			if (!LOGGED_FINGERPRINTS.addAndMoveToLast(fingerprint))
+				return;
+			if (LOGGED_FINGERPRINTS.size() > MAX_LOGGED_FINGERPRINTS)
+				LOGGED_FINGERPRINTS.removeFirst();
+		}
+		AdvancedTooltips.warn("Tooltip data of " + fingerprint + " (" + rootKeys + " root keys, over " + nodes + " nodes and "
+				+ bytes + " bytes walked) went over the decode budget (" + limit + "), the tooltip has been truncated.");
+	}
+
+	private static final class State {
+		private int depth;
+		private @Nullable ItemStack stack;
+		private long start;
+		private int nodes;
+		private long bytes;
+		private boolean exceeded;
+	}
+}
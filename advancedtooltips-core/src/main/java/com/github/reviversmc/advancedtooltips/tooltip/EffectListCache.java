@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.SuspiciousStewItem;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.potion.PotionUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caches the status effect tooltip components of potions, tipped arrows and suspicious stews.
+ * <p>
+ * Components are keyed by the potion identifier and the custom effects data of the stack,
+ * so every stack with the same effects shares one component and one immutable effect list.
+ */
+public final class EffectListCache {
+	private static final int MAX_CACHED_COMPONENTS = 512;
+	/**
+	 * Duration of suspicious stew effects which do not specify one, like in {@link SuspiciousStewItem}.
+	 */
+	private static final int DEFAULT_STEW_DURATION = 160;
+
+	private static final StatusEffectTooltipComponent HIDDEN = new StatusEffectTooltipComponent();
+
+	private static final Object2ObjectLinkedOpenHashMap<Key, StatusEffectTooltipComponent> COMPONENTS = new Object2ObjectLinkedOpenHashMap<>();
+
+	private EffectListCache() {
+		throw new UnsupportedOperationException("EffectListCache only contains static-definitions");
+	}
+
+	/**
+	 * Returns the component shown in place of the effects of items whose effects are hidden.
+	 *
+	 * @return the hidden effects component
+	 */
+	public static StatusEffectTooltipComponent getHiddenComponent() {
+		return HIDDEN;
+	}
+
+	/**
+	 * Returns the component of the potion effects of the given stack, from its potion and its custom potion effects.
+	 *
+	 * @param stack the stack
+	 * @param multiplier the multiplier of the effect durations
+	 * @return the effects component
+	 */
+	public static StatusEffectTooltipComponent getPotionComponent(ItemStack stack, float multiplier) {
+		var nbt = stack.getNbt();
+		var potion = nbt == null ? null : nbt.get(PotionUtil.POTION_KEY);
+		var customEffects = nbt == null ? null : nbt.get(PotionUtil.CUSTOM_POTION_EFFECTS_KEY);
+
+		// The budget is checked before building the key, as hashing and comparing oversized data would walk it entirely.
+		if (!DecodeBudget.tryDecode(customEffects)) {
+			// Oversized custom effects are left out, and the incomplete component is not cached.
+			return new StatusEffectTooltipComponent(List.copyOf(PotionUtil.getPotion(nbt).getEffects()), multiplier);
+		}
+
+		var key = new Key(Kind.POTION, multiplier, potion, customEffects);
+		var component = get(key);
+		if (component != null)
+			return component;
+
+		component = new StatusEffectTooltipComponent(List.copyOf(PotionUtil.getPotionEffects(stack)), multiplier);
+		put(key, component);
+		return component;
+	}
+
+	/**
+	 * Returns the component of the effects of the given suspicious stew.
+	 *
+	 * @param stack the suspicious stew
+	 * @return the effects component, or {@code null} if the stew does not specify its effects
+	 */
+	public static @Nullable StatusEffectTooltipComponent getSuspiciousStewComponent(ItemStack stack) {
+		var nbt = stack.getNbt();
+		if (nbt == null || !nbt.contains(SuspiciousStewItem.EFFECTS_KEY, NbtElement.LIST_TYPE))
+			return null;
+
+		var effectsNbt = nbt.getList(SuspiciousStewItem.EFFECTS_KEY, NbtElement.COMPOUND_TYPE);
+		if (!DecodeBudget.tryDecode(effectsNbt))
+			return null;
+
+		var key = new Key(Kind.SUSPICIOUS_STEW, 1.f, null, effectsNbt);
+		var component = get(key);
+		if (component != null)
+			return component;
+
+		component = new StatusEffectTooltipComponent(readStewEffects(effectsNbt), 1.f);
+		put(key, component);
+		return component;
+	}
+
+	private static List<StatusEffectInstance> readStewEffects(NbtList effectsNbt) {
+		var effects = new ArrayList<StatusEffectInstance>();
+		for (int i = 0; i < effectsNbt.size(); ++i) {
+			int duration = DEFAULT_STEW_DURATION;
+			var effectNbt = effectsNbt.getCompound(i);
+			if (effectNbt.contains(SuspiciousStewItem.EFFECT_DURATION_KEY, NbtElement.INT_TYPE)) {
+				duration = effectNbt.getInt(SuspiciousStewItem.EFFECT_DURATION_KEY);
+			}
+
+			var statusEffect = StatusEffect.byRawId(effectNbt.getByte(SuspiciousStewItem.EFFECT_ID_KEY));
+			if (statusEffect != null) {
+				effects.add(new StatusEffectInstance(statusEffect, duration));
+			}
+		}
+		return List.copyOf(effects);
+	}
+
+	private static @Nullable StatusEffectTooltipComponent get(Key key) {
+		synchronized (COMPONENTS) {
+			return COMPONENTS.getAndMoveToLast(key);
+		}
+	}
+
+	private static void put(Key key, StatusEffectTooltipComponent component) {
+		var storedKey = key.copy();
+
+		synchronized (COMPONENTS) {
+			COMPONENTS.putAndMoveToLast(storedKey, component);
+			if (COMPONENTS.size() > MAX_CACHED_COMPONENTS)
+				COMPONENTS.removeFirst();
+		}
+	}
+
+	private enum Kind {
+		POTION,
+		SUSPICIOUS_STEW
+	}
+
+	/**
+	 * Represents the effects data of a stack, looked up as is and stored as a copy since stacks are mutable.
+	 */
+	private record Key(Kind kind, float multiplier, @Nullable NbtElement potion, @Nullable NbtElement effects) {
+		Key copy() {
+			return new Key(this.kind, this.multiplier, this.potion == null ? null : this.potion.copy(), this.effects == null ? null : this.effects.copy());
+		}
+	}
+}
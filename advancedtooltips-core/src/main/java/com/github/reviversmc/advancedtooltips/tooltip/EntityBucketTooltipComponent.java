@@ -17,7 +17,6 @@
 
 package com.github.reviversmc.advancedtooltips.tooltip;
 
-import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.item.TooltipData;
 import net.minecraft.client.render.item.ItemRenderer;
@@ -48,10 +47,8 @@ public class EntityBucketTooltipComponent extends EntityTooltipComponent<Advance
 		if (!entitiesConfig.getFishBucketConfig().isEnabled())
 			return Optional.empty();
 
-		var client = MinecraftClient.getInstance();
-		var entity = type.create(client.world);
+		var entity = getPreviewEntity(type, itemNbt, null);
 		if (entity != null) {
-			EntityType.loadFromEntityNbt(client.world, null, entity, itemNbt);
 			adjustEntity(entity, itemNbt, entitiesConfig);
 			return Optional.of(new EntityBucketTooltipComponent(entitiesConfig.getFishBucketConfig(), entity));
 		}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
+import com.mojang.blaze3d.framebuffer.SimpleFramebuffer;
+import com.mojang.blaze3d.systems.RenderSystem;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawableHelper;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Matrix4f;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Caches entity previews in small offscreen framebuffers.
+ * <p>
+ * Previews which do not spin are rendered once at a fixed age, so they are static, and are also persisted through {@link EntityPreviewStore}.
+ * Spinning previews are re-rendered at the configured refresh rate instead of every frame.
+ * Other previews are only rendered again once the configuration changes, as it may change the look of pooled entities.
+ * A batch of entities drawn side by side, like the bees of a hive, shares a single preview which is rendered in one pass.
+ */
+final class EntityPreviewCache {
+	/**
+	 * Offset of the entity render origin within the cached canvas, leaves room for large entities and custom names.
+	 */
+	static final int CANVAS_X = 16;
+	static final int CANVAS_Y = 24;
+	private static final int CANVAS_WIDTH = 52;
+	private static final int CANVAS_HEIGHT = 60;
+	private static final int MAX_PREVIEWS = 32;
+
+	private static final Object2ObjectLinkedOpenHashMap<Target, Preview> PREVIEWS = new Object2ObjectLinkedOpenHashMap<>();
+	/**
+	 * Incremented to mark every cached preview outdated, previews are rendered again on their next draw.
+	 */
+	private static final AtomicInteger GENERATION = new AtomicInteger();
+
+	private EntityPreviewCache() {
+		throw new UnsupportedOperationException("EntityPreviewCache only contains static-definitions");
+	}
+
+	/**
+	 * Draws the cached preview of the given entity, re-rendering it first if it is missing or outdated.
+	 *
+	 * @param matrices the matrices to draw the preview with
+	 * @param x the X coordinate of the entity render origin
+	 * @param y the Y coordinate of the entity render origin
+	 * @param key the preview key
+	 * @param renderer renders the entity at the canvas origin
+	 */
+	static void draw(MatrixStack matrices, int x, int y, Key key, Consumer<MatrixStack> renderer) {
+		draw(matrices, x, y, key, CANVAS_WIDTH, CANVAS_HEIGHT, renderer);
+	}
+
+	/**
+	 * Draws the cached preview of the given batch of entities, re-rendering it first if it is missing or outdated.
+	 *
+	 * @param matrices the matrices to draw the preview with
+	 * @param x the X coordinate of the render origin of the batch
+	 * @param y the Y coordinate of the render origin of the batch
+	 * @param batch the batch
+	 * @param renderer renders every entity of the batch relative to the canvas origin
+	 */
+	static void drawBatch(MatrixStack matrices, int x, int y, Batch batch, Consumer<MatrixStack> renderer) {
+		draw(matrices, x, y, batch, CANVAS_WIDTH + batch.getWidth(), CANVAS_HEIGHT + batch.getHeight(), renderer);
+	}
+
+	private static void draw(MatrixStack matrices, int x, int y, Target key, int canvasWidth, int canvasHeight, Consumer<MatrixStack> renderer) {
+		var client = MinecraftClient.getInstance();
+		double scale = client.getWindow().getScaleFactor();
+		int width = MathHelper.ceil(canvasWidth * scale);
+		int height = MathHelper.ceil(canvasHeight * scale);
+		long time = Util.getMeasuringTimeMs();
+
+		int generation = GENERATION.get();
+		var preview = PREVIEWS.getAndMoveToLast(key);
+		if (preview != null && (preview.framebuffer.textureWidth != width || preview.framebuffer.textureHeight != height
+				|| preview.generation != generation)) {
+			preview.framebuffer.delete();
+			PREVIEWS.remove(key);
+			preview = null;
+		}
+
+		if (preview == null) {
+			preview = new Preview(new SimpleFramebuffer(width, height, true, MinecraftClient.IS_SYSTEM_MAC), generation);
+			preview.framebuffer.setClearColor(0.f, 0.f, 0.f, 0.f);
+			PREVIEWS.putAndMoveToLast(key, preview);
+
+			if (PREVIEWS.size() > MAX_PREVIEWS)
+				PREVIEWS.removeFirst().framebuffer.delete();
+
+			if (!key.spin() && EntityPreviewStore.isEnabled()) {
+				preview.fingerprint = EntityPreviewStore.getFingerprint(key, width, height);
+				if (preview.fingerprint != null && EntityPreviewStore.load(preview.fingerprint, preview.framebuffer))
+					preview.lastRender = time;
+			}
+		}
+
+		if (preview.lastRender == -1 || (key.spin() && time - preview.lastRender >= getRefreshInterval())) {
+			renderPreview(client, preview, canvasWidth, canvasHeight, renderer);
+			preview.lastRender = time;
+
+			if (preview.fingerprint != null)
+				EntityPreviewStore.save(preview.fingerprint, preview.framebuffer);
+		}
+
+		RenderSystem.enableBlend();
+		RenderSystem.defaultBlendFunc();
+		RenderSystem.setShaderColor(1.f, 1.f, 1.f, 1.f);
+		RenderSystem.setShaderTexture(0, preview.framebuffer.getColorAttachment());
+		matrices.push();
+		matrices.translate(0, 0, 50);
+		// Framebuffer textures are stored bottom-up, hence the negative region height.
+		DrawableHelper.drawTexture(matrices, x - CANVAS_X, y - CANVAS_Y, canvasWidth, canvasHeight,
+				0.f, canvasHeight, canvasWidth, -canvasHeight, canvasWidth, canvasHeight);
+		matrices.pop();
+	}
+
+	/**
+	 * Returns whether the preview cache is enabled.
+	 *
+	 * @return {@code true} if entity previews should be drawn from the cache, or {@code false} otherwise
+	 */
+	static boolean isEnabled() {
+		return AdvancedTooltips.getConfig().getEntitiesConfig().getPreviewRefreshRate() > 0;
+	}
+
+	/**
+	 * Marks every cached preview outdated, this may be called from any thread.
+	 */
+	static void invalidate() {
+		GENERATION.incrementAndGet();
+	}
+
+	/**
+	 * Deletes every cached preview, and forgets the resource environment of stored previews.
+	 */
+	static void clear() {
+		for (var preview : PREVIEWS.values()) {
+			preview.framebuffer.delete();
+		}
+		PREVIEWS.clear();
+		EntityPreviewStore.invalidateEnvironment();
+	}
+
+	private static long getRefreshInterval() {
+		return 1000L / AdvancedTooltips.getConfig().getEntitiesConfig().getPreviewRefreshRate();
+	}
+
+	private static void renderPreview(MinecraftClient client, Preview preview, int canvasWidth, int canvasHeight, Consumer<MatrixStack> renderer) {
+		preview.framebuffer.clear(MinecraftClient.IS_SYSTEM_MAC);
+		preview.framebuffer.beginWrite(true);
+
+		RenderSystem.backupProjectionMatrix();
+		RenderSystem.setProjectionMatrix(Matrix4f.projectionMatrix(0.f, canvasWidth, 0.f, canvasHeight, 1000.f, 3000.f));
+		var modelViewStack = RenderSystem.getModelViewStack();
+		modelViewStack.push();
+		modelViewStack.loadIdentity();
+		modelViewStack.translate(0, 0, -2000);
+		RenderSystem.applyModelViewMatrix();
+
+		renderer.accept(new MatrixStack());
+
+		modelViewStack.pop();
+		RenderSystem.applyModelViewMatrix();
+		RenderSystem.restoreProjectionMatrix();
+
+		client.getFramebuffer().beginWrite(true);
+	}
+
+	/**
+	 * Represents what a cached preview shows.
+	 */
+	sealed interface Target permits Key, Batch {
+		/**
+		 * Returns whether the preview spins, spinning previews are rendered again at the refresh rate.
+		 *
+		 * @return {@code true} if the preview spins, or {@code false} if it is static
+		 */
+		boolean spin();
+	}
+
+	/**
+	 * Represents the key of a cached preview, every parameter that changes the rendered pose is part of it.
+	 */
+	record Key(Entity entity, int ageOffset, boolean spin, boolean customNameVisible, float defaultYaw, boolean fast) implements Target {
+	}
+
+	/**
+	 * Represents a batch of entities rendered into a single preview.
+	 *
+	 * @param entries the entities, with their render origin relative to the origin of the batch
+	 */
+	record Batch(List<Entry> entries) implements Target {
+		@Override
+		public boolean spin() {
+			for (var entry : this.entries) {
+				if (entry.key().spin())
+					return true;
+			}
+			return false;
+		}
+
+		int getWidth() {
+			int width = 0;
+			for (var entry : this.entries) {
+				width = Math.max(width, entry.x());
+			}
+			return width;
+		}
+
+		int getHeight() {
+			int height = 0;
+			for (var entry : this.entries) {
+				height = Math.max(height, entry.y());
+			}
+			return height;
+		}
+
+		record Entry(Key key, int x, int y) {
+		}
+	}
+
+	private static final class Preview {
+		private final SimpleFramebuffer framebuffer;
+		private final int generation;
+		private long lastRender = -1;
+		private @Nullable String fingerprint;
+
+		private Preview(SimpleFramebuffer framebuffer, int generation) {
+			this.framebuffer = framebuffer;
+			this.generation = generation;
+		}
+	}
+}
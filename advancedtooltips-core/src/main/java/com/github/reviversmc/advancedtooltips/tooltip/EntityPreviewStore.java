@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
+import com.google.common.hash.Hashing;
+import com.mojang.blaze3d.framebuffer.SimpleFramebuffer;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.texture.NativeImage;
+
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.util.Util;
+import net.minecraft.util.registry.Registry;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Stores static entity previews in the game directory, so they are rendered only once across sessions.
+ * <p>
+ * Previews are identified by a fingerprint of the entity type, its normalized data, the render parameters,
+ * the game version, the language and the enabled resource packs.
+ * Only previews which do not spin are stored, they are rendered at a fixed age so the fingerprint covers everything they depend on.
+ * <p>
+ * Once more than {@value #MAX_STORED_PREVIEWS} previews are stored, the least recently used ones are deleted as new ones are written.
+ */
+final class EntityPreviewStore {
+	private static final Path DIRECTORY = FabricLoader.getInstance().getGameDir().resolve(AdvancedTooltips.NAMESPACE).resolve("entity_previews");
+	private static final int FORMAT_VERSION = 1;
+	private static final int MAX_STORED_PREVIEWS = 1024;
+	/**
+	 * Entity data keys which are driven by the tooltip itself, or which do not affect how the entity looks.
+	 */
+	private static final Set<String> VOLATILE_KEYS = Set.of(
+			"UUID", "Pos", "Motion", "Rotation", "FallDistance", "Fire", "Air", "OnGround", "PortalCooldown", "CustomNameVisible"
+	);
+
+	private static final Object STORED_COUNT_LOCK = new Object();
+
+	private static @Nullable String environment;
+	/**
+	 * The number of stored previews, or {@code -1} if the directory has not been counted yet. Guarded by {@link #STORED_COUNT_LOCK}.
+	 */
+	private static int storedCount = -1;
+
+	private EntityPreviewStore() {
+		throw new UnsupportedOperationException("EntityPreviewStore only contains static-definitions");
+	}
+
+	/**
+	 * Returns whether entity previews are persisted.
+	 *
+	 * @return {@code true} if entity previews are persisted, or {@code false} otherwise
+	 */
+	static boolean isEnabled() {
+		return AdvancedTooltips.getConfig().getEntitiesConfig().hasPersistentPreviews();
+	}
+
+	/**
+	 * Forgets the current resource environment, called when the client resources are reloaded.
+	 */
+	static void invalidateEnvironment() {
+		environment = null;
+	}
+
+	/**
+	 * Computes the fingerprint of the given preview.
+	 *
+	 * @param target the entity or the batch of entities of the preview
+	 * @param width the width of the preview in pixels
+	 * @param height the height of the preview in pixels
+	 * @return the fingerprint, or {@code null} if an entity could not be serialized
+	 */
+	static @Nullable String getFingerprint(EntityPreviewCache.Target target, int width, int height) {
+		var builder = new StringBuilder(getEnvironment());
+		if (target instanceof EntityPreviewCache.Key key) {
+			if (!appendKey(builder, key))
+				return null;
+		} else if (target instanceof EntityPreviewCache.Batch batch) {
+			for (var entry : batch.entries()) {
+				if (!appendKey(builder, entry.key()))
+					return null;
+				builder.append('@').append(entry.x()).append(',').append(entry.y());
+			}
+		}
+		builder.append('|').append(width).append('x').append(height);
+
+		return Hashing.sha256().hashString(builder, StandardCharsets.UTF_8).toString();
+	}
+
+	private static boolean appendKey(StringBuilder builder, EntityPreviewCache.Key key) {
+		var entity = key.entity();
+
+		NbtCompound nbt;
+		try {
+			nbt = entity.writeNbt(new NbtCompound());
+		} catch (RuntimeException e) {
+			return false;
+		}
+		VOLATILE_KEYS.forEach(nbt::remove);
+
+		builder.append('|').append(Registry.ENTITY_TYPE.getId(entity.getType())).append('|');
+		appendNormalized(builder, nbt);
+		builder.append('|').append(key.ageOffset())
+				.append('|').append(key.customNameVisible())
+				.append('|').append(key.defaultYaw())
+				.append('|').append(key.fast());
+		return true;
+	}
+
+	/**
+	 * Loads the stored preview with the given fingerprint into the given framebuffer.
+	 *
+	 * @param fingerprint the preview fingerprint
+	 * @param framebuffer the framebuffer to load the preview into
+	 * @return {@code true} if the preview was loaded, or {@code false} if it is not stored
+	 */
+	static boolean load(String fingerprint, SimpleFramebuffer framebuffer) {
+		var path = getPath(fingerprint);
+		if (!Files.isRegularFile(path))
+			return false;
+
+		// Images are stored with the bottom-up row order of framebuffer textures, they are uploaded back as is.
+		try (var stream = Files.newInputStream(path); var image = NativeImage.read(stream)) {
+			if (image.getWidth() != framebuffer.textureWidth || image.getHeight() != framebuffer.textureHeight)
+				return false;
+
+			RenderSystem.bindTexture(framebuffer.getColorAttachment());
+			image.upload(0, 0, 0, false);
+		} catch (IOException e) {
+			AdvancedTooltips.warn("Could not read stored entity preview \"" + path + "\".", e);
+			return false;
+		}
+
+		Util.getIoWorkerExecutor().execute(() -> {
+			try {
+				Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+			} catch (IOException ignored) {
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * Stores the preview rendered in the given framebuffer.
+	 * <p>
+	 * The texture is read back on the render thread, the image is then written asynchronously.
+	 *
+	 * @param fingerprint the preview fingerprint
+	 * @param framebuffer the framebuffer holding the rendered preview
+	 */
+	static void save(String fingerprint, SimpleFramebuffer framebuffer) {
+		var image = new NativeImage(framebuffer.textureWidth, framebuffer.textureHeight, false);
+		RenderSystem.bindTexture(framebuffer.getColorAttachment());
+		image.loadFromTextureImage(0, false);
+
+		Util.getIoWorkerExecutor().execute(() -> {
+			var path = getPath(fingerprint);
+			try (image) {
+				Files.createDirectories(DIRECTORY);
+				boolean created = !Files.exists(path);
+
+				var temporaryPath = DIRECTORY.resolve(fingerprint + ".tmp");
+				image.writeTo(temporaryPath);
+				Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+				if (created)
+					onStored();
+			} catch (IOException e) {
+				AdvancedTooltips.warn("Could not store entity preview \"" + path + "\".", e);
+			}
+		});
+	}
+
+	/**
+	 * Counts a newly stored preview, and deletes the least recently used previews once too many are stored.
+	 * <p>
+	 * The directory is only listed to count the previews stored by previous sessions, and then to trim it.
+	 */
+	private static void onStored() throws IOException {
+		synchronized (STORED_COUNT_LOCK) {
+			if (storedCount == -1)
+				storedCount = listStored().length;
+			else
+				storedCount++;
+
+			if (storedCount > MAX_STORED_PREVIEWS)
+				storedCount = trim();
+		}
+	}
+
+	/**
+	 * Deletes the least recently used previews past the limit.
+	 *
+	 * @return the number of previews left
+	 */
+	private static int trim() throws IOException {
+		var paths = listStored();
+		if (paths.length <= MAX_STORED_PREVIEWS)
+			return paths.length;
+
+		Arrays.sort(paths, Comparator.comparing(EntityPreviewStore::getLastModifiedTime));
+		for (int i = 0; i < paths.length - MAX_STORED_PREVIEWS; i++) {
+			Files.deleteIfExists(paths[i]);
+		}
+		return MAX_STORED_PREVIEWS;
+	}
+
+	private static Path[] listStored() throws IOException {
+		try (Stream<Path> stream = Files.list(DIRECTORY)) {
+			return stream.filter(path -> path.getFileName().toString().endsWith(".png")).toArray(Path[]::new);
+		}
+	}
+
+	private static FileTime getLastModifiedTime(Path path) {
+		try {
+			return Files.getLastModifiedTime(path);
+		} catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private static Path getPath(String fingerprint) {
+		return DIRECTORY.resolve(fingerprint + ".png");
+	}
+
+	private static String getEnvironment() {
+		if (environment == null) {
+			var client = MinecraftClient.getInstance();
+			environment = FORMAT_VERSION
+					+ "|" + SharedConstants.getGameVersion().getId()
+					+ "|" + client.getLanguageManager().getLanguage().getCode()
+					+ "|" + String.join(",", client.getResourcePackManager().getEnabledNames());
+		}
+		return environment;
+	}
+
+	/**
+	 * Appends the given element with the keys of every compound sorted, so equal data always gives the same string.
+	 */
+	private static void appendNormalized(StringBuilder builder, NbtElement element) {
+		if (element instanceof NbtCompound compound) {
+			builder.append('{');
+			compound.getKeys().stream().sorted().forEach(key -> {
+				builder.append(key).append(':');
+				appendNormalized(builder, compound.get(key));
+				builder.append(',');
+			});
+			builder.append('}');
+		} else if (element instanceof NbtList list) {
+			builder.append('[');
+			for (var child : list) {
+				appendNormalized(builder, child);
+				builder.append(',');
+			}
+			builder.append(']');
+		} else {
+			builder.append(element);
+		}
+	}
+}
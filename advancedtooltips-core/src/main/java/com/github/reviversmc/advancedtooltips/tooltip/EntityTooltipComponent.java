@@ -17,13 +17,17 @@
 
 package com.github.reviversmc.advancedtooltips.tooltip;
 
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
 import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
+import com.github.reviversmc.advancedtooltips.EntityRenderQuality;
 import com.github.reviversmc.advancedtooltips.mixin.CameraAccessor;
 import com.github.reviversmc.advancedtooltips.mixin.EntityAccessor;
 import com.github.reviversmc.advancedtooltips.mixin.ItemEntityAccessor;
 import com.github.reviversmc.advancedtooltips.mixin.WitherEntityAccessor;
 import com.mojang.blaze3d.lighting.DiffuseLighting;
+import com.mojang.blaze3d.systems.RenderSystem;
 
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.screen.Screen;
@@ -32,6 +36,7 @@ import net.minecraft.client.render.LightmapTextureManager;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.entity.Bucketable;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
 import net.minecraft.entity.ItemEntity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.decoration.EndCrystalEntity;
@@ -41,14 +46,33 @@ import net.minecraft.entity.passive.SquidEntity;
 import net.minecraft.entity.passive.TropicalFishEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.Quaternion;
 import net.minecraft.util.math.Vec3f;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Represents a tooltip component for entities.
  */
 public abstract class EntityTooltipComponent<C extends AdvancedTooltipsConfig.EntityConfig> implements ConvertibleTooltipData, TooltipComponent {
+	private static final int PREVIEW_POOL_SIZE = 32;
+	private static final Object2ObjectLinkedOpenHashMap<PreviewKey, Entity> PREVIEW_POOL = new Object2ObjectLinkedOpenHashMap<>();
+	private static final Quaternion ENTITY_ROTATION = Util.make(Vec3f.POSITIVE_Z.getDegreesQuaternion(180.f),
+			quaternion -> quaternion.hamiltonProduct(Vec3f.POSITIVE_X.getDegreesQuaternion(-10.f)));
+
 	protected final MinecraftClient client = MinecraftClient.getInstance();
 	protected final C config;
+	private static boolean renderingFast = false;
+	private boolean batching = false;
+	private boolean batchingPreviews = false;
+	private final List<EntityPreviewCache.Batch.Entry> batch = new ArrayList<>();
+	private int batchX;
+	private int batchY;
 
 	protected EntityTooltipComponent(C config) {
 		this.config = config;
@@ -74,11 +98,125 @@ public abstract class EntityTooltipComponent<C extends AdvancedTooltipsConfig.En
 	}
 
 	protected void renderEntity(MatrixStack matrices, int x, int y, Entity entity, int ageOffset, boolean spin, boolean allowCustomName, float defaultYaw) {
+		if (!TooltipDwell.isSettled())
+			return;
+
+		boolean customNameVisible = allowCustomName && entity.hasCustomName() && (this.config.shouldAlwaysShowName() || Screen.hasControlDown());
+		spin &= TooltipFrameBudget.allowsSpin();
+		boolean fast = AdvancedTooltips.getConfig().getEntitiesConfig().getRenderQuality(this.config, entity.getType()).isFast();
+
+		if (this.batchingPreviews) {
+			// Batched entities are collected and rendered together into the preview of the batch once it ends.
+			if (this.batch.isEmpty()) {
+				this.batchX = x;
+				this.batchY = y;
+			}
+			var key = new EntityPreviewCache.Key(entity, ageOffset, spin, customNameVisible, defaultYaw, fast);
+			this.batch.add(new EntityPreviewCache.Batch.Entry(key, x - this.batchX, y - this.batchY));
+		} else if (EntityPreviewCache.isEnabled()) {
+			var key = new EntityPreviewCache.Key(entity, ageOffset, spin, customNameVisible, defaultYaw, fast);
+			// Previews which do not spin are rendered at a fixed age, so they are static and are rendered only once.
+			int age = spin ? this.getAge() : 0;
+			EntityPreviewCache.draw(matrices, x, y, key, previewMatrices -> {
+				this.beginEntityPass();
+				this.submitEntity(previewMatrices, EntityPreviewCache.CANVAS_X, EntityPreviewCache.CANVAS_Y,
+						entity, age, ageOffset, spin, customNameVisible, defaultYaw, fast);
+				this.endEntityPass();
+			});
+		} else if (this.batching) {
+			this.submitEntity(matrices, x, y, entity, this.getAge(), ageOffset, spin, customNameVisible, defaultYaw, fast);
+		} else {
+			this.beginEntityPass();
+			this.submitEntity(matrices, x, y, entity, this.getAge(), ageOffset, spin, customNameVisible, defaultYaw, fast);
+			this.endEntityPass();
+		}
+	}
+
+	/**
+	 * Returns whether an entity is currently being rendered with the {@link EntityRenderQuality#FAST fast} render quality.
+	 * <p>
+	 * Entity renderers use this to skip the details which are not visible at tooltip size.
+	 *
+	 * @return {@code true} if a fast entity render is in progress, or {@code false} otherwise
+	 */
+	public static boolean isRenderingFast() {
+		return renderingFast;
+	}
+
+	/**
+	 * Starts a batch of entity renders, until {@link #endEntityBatch()} is called the entities are rendered in a single pass.
+	 * <p>
+	 * Lighting and dispatcher state are then set up once and every entity is flushed with a single draw call.
+	 * With the preview cache, the batch shares one preview which is rendered in such a pass whenever it is refreshed.
+	 * Batched entities are expected to be drawn to the right and below the first one.
+	 */
+	protected void beginEntityBatch() {
+		if (!this.batching) {
+			this.batchingPreviews = EntityPreviewCache.isEnabled();
+			if (!this.batchingPreviews)
+				this.beginEntityPass();
+			this.batching = true;
+		}
+	}
+
+	/**
+	 * Ends the current batch of entity renders and flushes it.
+	 *
+	 * @param matrices the matrices the batched entities were rendered with
+	 */
+	protected void endEntityBatch(MatrixStack matrices) {
+		if (!this.batching)
+			return;
+		this.batching = false;
+
+		if (!this.batchingPreviews) {
+			this.endEntityPass();
+			return;
+		}
+		this.batchingPreviews = false;
+		if (this.batch.isEmpty())
+			return;
+
+		var batch = new EntityPreviewCache.Batch(List.copyOf(this.batch));
+		this.batch.clear();
+		int age = batch.spin() ? this.getAge() : 0;
+		EntityPreviewCache.drawBatch(matrices, this.batchX, this.batchY, batch, previewMatrices -> {
+			this.beginEntityPass();
+			for (var entry : batch.entries()) {
+				var key = entry.key();
+				this.submitEntity(previewMatrices, EntityPreviewCache.CANVAS_X + entry.x(), EntityPreviewCache.CANVAS_Y + entry.y(),
+						key.entity(), age, key.ageOffset(), key.spin(), key.customNameVisible(), key.defaultYaw(), key.fast());
+			}
+			this.endEntityPass();
+		});
+	}
+
+	private void beginEntityPass() {
+		DiffuseLighting.setupFlatGuiLighting();
+
+		var entityRenderDispatcher = this.client.getEntityRenderDispatcher();
+		if (entityRenderDispatcher.camera == null) // No world has been rendered yet, e.g. in the main menu.
+			entityRenderDispatcher.configure(PreviewWorld.get(), this.client.gameRenderer.getCamera(), null);
+
+		var rotation = Vec3f.POSITIVE_X.getDegreesQuaternion(-10.f);
+		rotation.conjugate();
+		((CameraAccessor) entityRenderDispatcher.camera).setYaw(0f);
+		entityRenderDispatcher.setRotation(rotation);
+		entityRenderDispatcher.setRenderShadows(false);
+	}
+
+	private void endEntityPass() {
+		this.client.getBufferBuilders().getEntityVertexConsumers().draw();
+		this.client.getEntityRenderDispatcher().setRenderShadows(true);
+		DiffuseLighting.setup3DGuiLighting();
+	}
+
+	private void submitEntity(MatrixStack matrices, int x, int y, Entity entity, int age, int ageOffset, boolean spin, boolean customNameVisible,
+	                          float defaultYaw, boolean fast) {
 		float size = 24;
 		if (Math.max(entity.getWidth(), entity.getHeight()) > 1.0) {
 			size /= Math.max(entity.getWidth(), entity.getHeight());
 		}
-		DiffuseLighting.setupFlatGuiLighting();
 		matrices.push();
 		int yOffset = 16;
 		if (entity instanceof SquidEntity) {
@@ -95,36 +233,31 @@ public abstract class EntityTooltipComponent<C extends AdvancedTooltipsConfig.En
 		matrices.scale(1f, 1f, -1);
 		matrices.translate(0, 0, 1000);
 		matrices.scale(size, size, size);
-
-		var quaternion = Vec3f.POSITIVE_Z.getDegreesQuaternion(180.f);
-		var quaternion2 = Vec3f.POSITIVE_X.getDegreesQuaternion(-10.f);
-		quaternion.hamiltonProduct(quaternion2);
-		matrices.multiply(quaternion);
+		matrices.multiply(ENTITY_ROTATION);
 
 		if (this.client.cameraEntity != null) {
 			entity.setPos(this.client.cameraEntity.getX(), this.client.cameraEntity.getY(), this.client.cameraEntity.getZ());
 		}
-		this.setupAngles(entity, this.client.player.age, ageOffset, spin, defaultYaw);
+		this.setupAngles(entity, age, ageOffset, spin, defaultYaw);
 
-		var entityRenderDispatcher = this.client.getEntityRenderDispatcher();
-		quaternion2.conjugate();
-		((CameraAccessor) entityRenderDispatcher.camera).setYaw(0f);
-		entity.setFireTicks(((EntityAccessor) entity).getHasVisualFire() ? 1 : entity.getFireTicks());
-		entityRenderDispatcher.setRotation(quaternion2);
+		// The fire overlay is an extra pass over the whole entity, it is skipped in fast renders.
+		if (fast) entity.setFireTicks(0);
+		else entity.setFireTicks(((EntityAccessor) entity).getHasVisualFire() ? 1 : entity.getFireTicks());
+		entity.setCustomNameVisible(customNameVisible);
 
-		entityRenderDispatcher.setRenderShadows(false);
-
-		var immediate = this.client.getBufferBuilders().getEntityVertexConsumers();
-		entity.setCustomNameVisible(allowCustomName && entity.hasCustomName() && (this.config.shouldAlwaysShowName() || Screen.hasControlDown()));
-
-		entityRenderDispatcher.render(entity, 0, 0, 0, 0.f, 1.f, matrices, immediate,
-				LightmapTextureManager.MAX_LIGHT_COORDINATE
-		);
-		immediate.draw();
-
-		entityRenderDispatcher.setRenderShadows(true);
+		renderingFast = fast;
+		try {
+			this.client.getEntityRenderDispatcher().render(entity, 0, 0, 0, 0.f, 1.f, matrices, this.client.getBufferBuilders().getEntityVertexConsumers(),
+					LightmapTextureManager.MAX_LIGHT_COORDINATE
+			);
+		} finally {
+			renderingFast = false;
+		}
 		matrices.pop();
-		DiffuseLighting.setup3DGuiLighting();
+	}
+
+	private int getAge() {
+		return this.client.player != null ? this.client.player.age : 0;
 	}
 
 	protected void setupAngles(Entity entity, int age, int ageOffset, boolean spin, float defaultYaw) {
@@ -152,6 +285,20 @@ public abstract class EntityTooltipComponent<C extends AdvancedTooltipsConfig.En
 
 	protected abstract boolean shouldRenderCustomNames();
 
+	/**
+	 * Deletes the cached entity previews, called when the client resources are reloaded.
+	 */
+	public static void clearPreviewCache() {
+		EntityPreviewCache.clear();
+	}
+
+	/**
+	 * Marks the cached entity previews outdated, called when the configuration changes.
+	 */
+	public static void invalidatePreviewCache() {
+		EntityPreviewCache.invalidate();
+	}
+
 	protected static void adjustEntity(Entity entity, NbtCompound itemNbt, AdvancedTooltipsConfig.EntitiesConfig config) {
 		if (entity instanceof Bucketable bucketable) {
 			bucketable.copyDataFromNbt(itemNbt);
@@ -164,4 +311,109 @@ public abstract class EntityTooltipComponent<C extends AdvancedTooltipsConfig.En
 			}
 		}
 	}
+
+	/**
+	 * Returns a preview entity of the given type with the entity tag of the given item applied, reusing a pooled instance if one was already built.
+	 * <p>
+	 * Pooled entities are shared by items with the same NBT, as item data other than the entity tag may still change the entity.
+	 *
+	 * @param type the entity type
+	 * @param itemNbt the NBT of the item holding the entity tag
+	 * @param defaults the default data applied before the entity tag, may be {@code null}
+	 * @return the preview entity, or {@code null} if the entity could not be created
+	 */
+	protected static @Nullable Entity getPreviewEntity(EntityType<?> type, NbtCompound itemNbt, @Nullable NbtCompound defaults) {
+		return getPooledEntity(type, itemNbt, () -> {
+			var entity = type.create(PreviewWorld.get());
+			if (entity != null)
+				applyEntityTag(entity, itemNbt.getCompound("EntityTag"), defaults);
+			return entity;
+		});
+	}
+
+	/**
+	 * Returns a preview entity loaded from the given full entity data, reusing a pooled instance if one was already built.
+	 * <p>
+	 * The UUID, passengers and leash of the entity are ignored.
+	 *
+	 * @param entityData the entity data, including its identifier
+	 * @return the preview entity, or {@code null} if the entity could not be created
+	 */
+	protected static @Nullable Entity getPreviewEntity(NbtCompound entityData) {
+		// The ignored keys are left out of a shallow copy, so passenger chains are neither hashed, copied nor charged to the decode budget.
+		var nbt = new NbtCompound();
+		for (var key : entityData.getKeys()) {
+			if (!key.equals("UUID") && !key.equals("Passengers") && !key.equals("Leash"))
+				nbt.put(key, entityData.get(key));
+		}
+
+		return getPooledEntity(null, nbt, () -> EntityType.loadEntityWithPassengers(nbt, PreviewWorld.get(), Function.identity()));
+	}
+
+	private static @Nullable Entity getPooledEntity(@Nullable EntityType<?> type, NbtCompound nbt, Supplier<Entity> factory) {
+		// Preview entities belong to the preview world, which is only used on the render thread.
+		if (!RenderSystem.isOnRenderThread())
+			return null;
+
+		// The data is charged before it is hashed into a key, so crafted data never gets walked past the budget.
+		if (!DecodeBudget.tryDecode(nbt))
+			return null;
+
+		var key = new PreviewKey(type, nbt);
+		synchronized (PREVIEW_POOL) {
+			var entity = PREVIEW_POOL.getAndMoveToLast(key);
+			if (entity != null)
+				return entity;
+		}
+
+		var entity = factory.get();
+		if (entity == null)
+			return null;
+
+		synchronized (PREVIEW_POOL) {
+			PREVIEW_POOL.putAndMoveToLast(new PreviewKey(type, nbt.copy()), entity);
+			if (PREVIEW_POOL.size() > PREVIEW_POOL_SIZE)
+				PREVIEW_POOL.removeFirst();
+		}
+
+		return entity;
+	}
+
+	/**
+	 * Applies the keys present in the given entity tag onto a freshly created entity.
+	 * <p>
+	 * The entity is never serialized: a fresh entity already holds the defaults of its type, so a tag without data is not read at all,
+	 * and other tags are read on their own like the summon command does, so only the keys they hold are decoded.
+	 *
+	 * @param entity the entity
+	 * @param entityTag the entity tag to apply
+	 * @param defaults the default data applied before the entity tag, may be {@code null}
+	 */
+	protected static void applyEntityTag(Entity entity, NbtCompound entityTag, @Nullable NbtCompound defaults) {
+		int size = entityTag.getSize();
+		if (size == 0 || size == 1 && entityTag.contains(Entity.ID_KEY))
+			return;
+
+		var sparse = new NbtCompound();
+		if (defaults != null)
+			putAll(sparse, defaults);
+		putAll(sparse, entityTag);
+		sparse.remove("UUID");
+		entity.readNbt(sparse);
+	}
+
+	private static void putAll(NbtCompound target, NbtCompound source) {
+		for (var key : source.getKeys()) {
+			target.put(key, source.get(key));
+		}
+	}
+
+	/**
+	 * Represents the data a pooled preview entity was built from.
+	 * <p>
+	 * The data is hashed and compared in full, so keys are only built from data which fit the decode budget,
+	 * and stored keys hold a copy as the data of the stack may change while pooled.
+	 */
+	private record PreviewKey(@Nullable EntityType<?> type, NbtCompound nbt) {
+	}
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import com.github.reviversmc.advancedtooltips.api.InventoryView;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.tooltip.TooltipComponent;
+import net.minecraft.client.render.LightmapTextureManager;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.render.item.ItemRenderer;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.text.Text;
+import net.minecraft.util.DyeColor;
+import net.minecraft.util.math.Matrix4f;
+import net.minecraft.util.registry.Registry;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a summary of a huge inventory: its most common items, its count of distinct items and its total item count.
+ * <p>
+ * The inventory is streamed over once, items are counted by raw identifier from the item and count of each slot,
+ * only the stacks used as icons are decoded.
+ */
+public class InventorySummaryTooltipComponent implements ConvertibleTooltipData, TooltipComponent {
+	private static final int TOP_ITEMS = 9;
+
+	private final ItemStack[] topStacks;
+	private final String[] topCounts;
+	private final Text summary;
+	private final DyeColor color;
+
+	private InventorySummaryTooltipComponent(ItemStack[] topStacks, String[] topCounts, Text summary, @Nullable DyeColor color) {
+		this.topStacks = topStacks;
+		this.topCounts = topCounts;
+		this.summary = summary;
+		this.color = color;
+	}
+
+	/**
+	 * Summarizes the given inventory.
+	 *
+	 * @param inventory the inventory
+	 * @return the summary tooltip component, or {@code null} if the inventory is empty
+	 */
+	public static @Nullable InventorySummaryTooltipComponent of(InventoryView inventory) {
+		var counts = new Int2LongOpenHashMap();
+		// The stack in the first slot of each item is used as its icon.
+		var iconSlots = new Int2IntOpenHashMap();
+		long total = 0;
+
+		for (int slot = 0; slot < inventory.size(); slot++) {
+			if (!inventory.isOccupied(slot))
+				continue;
+
+			var item = inventory.getItem(slot);
+			int count = inventory.getCount(slot);
+			if (item == Items.AIR || count <= 0)
+				continue;
+
+			int id = Registry.ITEM.getRawId(item);
+			counts.addTo(id, count);
+			iconSlots.putIfAbsent(id, slot);
+			total += count;
+		}
+
+		if (counts.isEmpty())
+			return null;
+
+		var topIds = selectTop(counts, TOP_ITEMS);
+		var topStacks = new ItemStack[topIds.length];
+		var topCounts = new String[topIds.length];
+		for (int i = 0; i < topIds.length; i++) {
+			var icon = inventory.getStack(iconSlots.get(topIds[i]));
+			// Stacks over the decode budget are shown as the bare item.
+			topStacks[i] = icon.isEmpty() ? new ItemStack(Registry.ITEM.get(topIds[i])) : icon;
+			topCounts[i] = formatCount(counts.get(topIds[i]));
+		}
+
+		var summary = Text.translatable("advancedtooltips.tooltip.inventory.summary", formatCount(total), counts.size());
+		return new InventorySummaryTooltipComponent(topStacks, topCounts, summary, inventory.getColor());
+	}
+
+	/**
+	 * Selects the most common items with a small insertion sort, the map itself is never sorted.
+	 *
+	 * @param counts the item counts by raw identifier
+	 * @param limit the maximum number of items to select
+	 * @return the raw identifiers of the selected items, from the most common one
+	 */
+	static int[] selectTop(Int2LongMap counts, int limit) {
+		int topSize = Math.min(limit, counts.size());
+		var topIds = new int[topSize];
+		var topValues = new long[topSize];
+		int filled = 0;
+		for (var entry : counts.int2LongEntrySet()) {
+			long count = entry.getLongValue();
+			if (filled == topSize && count <= topValues[topSize - 1])
+				continue;
+
+			int index = filled < topSize ? filled++ : topSize - 1;
+			while (index > 0 && topValues[index - 1] < count) {
+				topIds[index] = topIds[index - 1];
+				topValues[index] = topValues[index - 1];
+				index--;
+			}
+			topIds[index] = entry.getIntKey();
+			topValues[index] = count;
+		}
+		return topIds;
+	}
+
+	private static String formatCount(long count) {
+		if (count >= 1_000_000)
+			return (count / 100_000) / 10.f + "M";
+		else if (count >= 10_000)
+			return count / 1000 + "k";
+		return String.valueOf(count);
+	}
+
+	@Override
+	public TooltipComponent getComponent() {
+		return this;
+	}
+
+	@Override
+	public int getHeight() {
+		return 18 + 3 + 10;
+	}
+
+	@Override
+	public int getWidth(TextRenderer textRenderer) {
+		return Math.max(this.topStacks.length * 18, textRenderer.getWidth(this.summary));
+	}
+
+	@Override
+	public void drawText(TextRenderer textRenderer, int x, int y, Matrix4f matrix4f, VertexConsumerProvider.Immediate immediate) {
+		textRenderer.draw(this.summary, x, y + 18 + 3, 0xaaaaaa, true, matrix4f, immediate, false,
+				0, LightmapTextureManager.MAX_LIGHT_COORDINATE);
+	}
+
+	@Override
+	public void drawItems(TextRenderer textRenderer, int xOffset, int yOffset, MatrixStack matrices, ItemRenderer itemRenderer, int z) {
+		boolean drawStacks = TooltipDwell.isSettled();
+
+		for (int i = 0; i < this.topStacks.length; i++) {
+			int x = 1 + i * 18;
+			InventoryTooltipComponent.drawSlot(matrices, x + xOffset - 1, yOffset, z, this.color == null ? null : this.color.getColorComponents());
+			if (drawStacks) {
+				itemRenderer.renderInGuiWithOverrides(this.topStacks[i], xOffset + x, yOffset + 1);
+				itemRenderer.renderGuiItemOverlay(textRenderer, this.topStacks[i], xOffset + x, yOffset + 1, this.topCounts[i]);
+			}
+		}
+	}
+}
@@ -17,18 +17,27 @@
 
 package com.github.reviversmc.advancedtooltips.tooltip;
 
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
 import com.github.reviversmc.advancedtooltips.api.InventoryProvider;
+import com.github.reviversmc.advancedtooltips.api.InventoryView;
 import com.mojang.blaze3d.systems.RenderSystem;
 
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawableHelper;
+import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.tooltip.TooltipComponent;
 import net.minecraft.client.item.TooltipData;
+import net.minecraft.client.render.LightmapTextureManager;
+import net.minecraft.client.render.VertexConsumerProvider;
 import net.minecraft.client.render.item.ItemRenderer;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.ItemStack;
+import net.minecraft.text.Text;
 import net.minecraft.util.DyeColor;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Matrix4f;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -36,14 +45,49 @@ import java.util.List;
 import java.util.Optional;
 
 public class InventoryTooltipComponent implements ConvertibleTooltipData, TooltipComponent {
+	/**
+	 * Maximum count of rows drawn at once, larger inventories are scrolled with the mouse wheel.
+	 */
+	static final int MAX_VISIBLE_ROWS = 6;
+	/**
+	 * Time during which the last drawn outermost paged inventory still receives mouse scrolls.
+	 */
+	private static final long SCROLL_TIMEOUT = 100;
+	/**
+	 * Horizontal offset of nested inventories, leaves room for the icon of their container.
+	 */
+	private static final int NESTED_INDENT = 20;
+
+	private static int scrollRow;
+	private static int scrollHoverId = -1;
+	private static @Nullable InventoryTooltipComponent scrolledComponent;
+	private static long lastPagedDraw;
+
 	private final List<ItemStack> inventory;
 	private final int columns;
 	private final DyeColor color;
+	private final int rows;
+	private final List<Nested> nested;
+	/**
+	 * {@code true} if this component is not nested in another inventory tooltip, only those own the scroll position.
+	 */
+	private final boolean outermost;
+	private int nonEmptyCount = -1;
 
 	public InventoryTooltipComponent(List<ItemStack> inventory, int columns, @Nullable DyeColor color) {
+		this(inventory, columns, color, List.of(), true);
+	}
+
+	InventoryTooltipComponent(List<ItemStack> inventory, int columns, @Nullable DyeColor color, List<Nested> nested, boolean outermost) {
 		this.inventory = inventory;
 		this.columns = columns == 0 ? inventory.size() / 3 : columns;
 		this.color = color;
+		int rows = this.inventory.size() / this.getColumns();
+		if (this.inventory.size() % this.getColumns() != 0)
+			rows++;
+		this.rows = rows;
+		this.nested = nested;
+		this.outermost = outermost;
 	}
 
 	public static Optional<TooltipData> of(ItemStack stack, boolean compact, @Nullable InventoryProvider.Context context) {
@@ -56,10 +100,17 @@ public class InventoryTooltipComponent implements ConvertibleTooltipData, Toolti
 		if (blockEntityNbt == null)
 			return Optional.empty();
 
-		if (inventory.stream().allMatch(ItemStack::isEmpty))
+		// Huge inventories are summarized in a single pass instead of being compacted or drawn slot by slot.
+		var view = InventoryView.of(context);
+		int summaryThreshold = AdvancedTooltips.getConfig().getContainersConfig().getSummaryThreshold();
+		if (summaryThreshold > 0 && inventory.size() > summaryThreshold)
+			return Optional.ofNullable(InventorySummaryTooltipComponent.of(view));
+
+		// Emptiness is checked from the slot occupancy, without decoding any stack.
+		if (view.isEmpty())
 			return Optional.empty();
 
-		int columns = Math.min(inventory.size() % 3 == 0 ? inventory.size() / 3 : inventory.size(), 9);
+		int columns = getDefaultColumns(inventory.size());
 
 		if (compact) {
 			var compactedInventory = new ArrayList<ItemStack>();
@@ -70,7 +121,8 @@ public class InventoryTooltipComponent implements ConvertibleTooltipData, Toolti
 						.findFirst()
 						.ifPresentOrElse(
 								s -> s.increment(invStack.getCount()),
-								() -> compactedInventory.add(invStack)
+								// Stacks are copied before being merged, the inventory may be shared with other tooltips.
+								() -> compactedInventory.add(invStack.copy())
 						);
 			});
 
@@ -78,7 +130,22 @@ public class InventoryTooltipComponent implements ConvertibleTooltipData, Toolti
 			columns = 9;
 		}
 
-		return Optional.of(new InventoryTooltipComponent(inventory, columns, context.color()));
+		// Containers held in the inventory are only expanded while shift is held.
+		int nestedDepth = AdvancedTooltips.getConfig().getContainersConfig().getNestedDepth();
+		var nested = nestedDepth > 0 && Screen.hasShiftDown() ? NestedInventories.expand(inventory, nestedDepth) : List.<Nested>of();
+
+		return Optional.of(new InventoryTooltipComponent(inventory, columns, context.color(), nested, true));
+	}
+
+	/**
+	 * Clears the decoded nested inventories, called when the configuration changes.
+	 */
+	public static void clearNestedCache() {
+		NestedInventories.clear();
+	}
+
+	static int getDefaultColumns(int size) {
+		return Math.min(size % 3 == 0 ? size / 3 : size, 9);
 	}
 
 	@Override
@@ -88,15 +155,36 @@ public class InventoryTooltipComponent implements ConvertibleTooltipData, Toolti
 
 	@Override
 	public int getHeight() {
-		int rows = this.inventory.size() / this.getColumns();
-		if (this.inventory.size() % this.getColumns() != 0)
-			rows++;
-		return 18 * rows + 3;
+		int height = this.getGridHeight();
+		for (var nested : this.nested) {
+			height += nested.getHeight();
+		}
+		return height;
 	}
 
 	@Override
 	public int getWidth(TextRenderer textRenderer) {
-		return this.getColumns() * 18;
+		int width = this.getColumns() * 18;
+		if (this.isPaged())
+			width = Math.max(width, textRenderer.getWidth(this.getFooter()));
+		for (var nested : this.nested) {
+			width = Math.max(width, NESTED_INDENT + nested.component().getWidth(textRenderer));
+		}
+		return width;
+	}
+
+	@Override
+	public void drawText(TextRenderer textRenderer, int x, int y, Matrix4f matrix4f, VertexConsumerProvider.Immediate immediate) {
+		if (this.isPaged()) {
+			textRenderer.draw(this.getFooter(), x, y + 18 * MAX_VISIBLE_ROWS + 3, 0xaaaaaa, true, matrix4f, immediate, false,
+					0, LightmapTextureManager.MAX_LIGHT_COORDINATE);
+		}
+
+		int nestedY = y + this.getGridHeight();
+		for (var nested : this.nested) {
+			nested.component().drawText(textRenderer, x + NESTED_INDENT, nestedY, matrix4f, immediate);
+			nestedY += nested.getHeight();
+		}
 	}
 
 	@Override
@@ -104,17 +192,97 @@ public class InventoryTooltipComponent implements ConvertibleTooltipData, Toolti
 		int x = 1;
 		int y = 1;
 		int lines = this.getColumns();
+		boolean drawStacks = TooltipDwell.isSettled();
 
-		for (var stack : this.inventory) {
+		// Only the visible window of the inventory is drawn.
+		int firstRow = this.getFirstVisibleRow();
+		int start = firstRow * lines;
+		int end = Math.min(this.inventory.size(), (firstRow + Math.min(this.rows, MAX_VISIBLE_ROWS)) * lines);
+		if (this.isPaged() && this.outermost) {
+			scrolledComponent = this;
+			lastPagedDraw = Util.getMeasuringTimeMs();
+		}
+
+		for (int i = start; i < end; i++) {
+			var stack = this.inventory.get(i);
 			drawSlot(matrices, x + xOffset - 1, y + yOffset - 1, z, this.color == null ? null : color.getColorComponents());
-			itemRenderer.renderInGuiWithOverrides(stack, xOffset + x, yOffset + y);
-			itemRenderer.renderGuiItemOverlay(textRenderer, stack, xOffset + x, yOffset + y);
+			if (drawStacks) {
+				itemRenderer.renderInGuiWithOverrides(stack, xOffset + x, yOffset + y);
+				itemRenderer.renderGuiItemOverlay(textRenderer, stack, xOffset + x, yOffset + y);
+			}
 			x += 18;
 			if (x >= 18 * lines) {
 				x = 1;
 				y += 18;
 			}
 		}
+
+		int nestedY = yOffset + this.getGridHeight();
+		for (var nested : this.nested) {
+			if (drawStacks)
+				itemRenderer.renderInGuiWithOverrides(nested.container(), xOffset + 1, nestedY + 1);
+			nested.component().drawItems(textRenderer, xOffset + NESTED_INDENT, nestedY, matrices, itemRenderer, z);
+			nestedY += nested.getHeight();
+		}
+	}
+
+	/**
+	 * Scrolls the last drawn outermost paged inventory tooltip, if it is still shown.
+	 *
+	 * @param amount the scroll amount, positive to scroll up
+	 * @return {@code true} if the scroll was consumed, or {@code false} otherwise
+	 */
+	public static boolean scroll(double amount) {
+		var component = scrolledComponent;
+		if (amount == 0 || component == null || Util.getMeasuringTimeMs() - lastPagedDraw > SCROLL_TIMEOUT)
+			return false;
+
+		scrollRow = MathHelper.clamp(scrollRow - (int) Math.signum(amount), 0, component.rows - MAX_VISIBLE_ROWS);
+		return true;
+	}
+
+	private int getGridHeight() {
+		if (this.isPaged())
+			return 18 * MAX_VISIBLE_ROWS + 3 + 10;
+		return 18 * this.rows + 3;
+	}
+
+	private boolean isPaged() {
+		return this.rows > MAX_VISIBLE_ROWS;
+	}
+
+	private int getFirstVisibleRow() {
+		if (!this.isPaged() || !this.outermost)
+			return 0;
+
+		// The scroll position is kept only while the same stack stays hovered.
+		if (scrollHoverId != TooltipDwell.getHoverId()) {
+			scrollHoverId = TooltipDwell.getHoverId();
+			scrollRow = 0;
+		}
+		return Math.min(scrollRow, this.rows - MAX_VISIBLE_ROWS);
+	}
+
+	private Text getFooter() {
+		int columns = this.getColumns();
+		int firstRow = this.getFirstVisibleRow();
+		int start = firstRow * columns;
+		int end = Math.min(this.inventory.size(), (firstRow + MAX_VISIBLE_ROWS) * columns);
+
+		// Only the stacks which are hidden are counted, not the empty slots.
+		if (this.nonEmptyCount == -1)
+			this.nonEmptyCount = countNonEmpty(this.inventory, 0, this.inventory.size());
+		int hidden = this.nonEmptyCount - countNonEmpty(this.inventory, start, end);
+		return Text.translatable("advancedtooltips.tooltip.inventory.more", hidden);
+	}
+
+	private static int countNonEmpty(List<ItemStack> inventory, int start, int end) {
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			if (!inventory.get(i).isEmpty())
+				count++;
+		}
+		return count;
 	}
 
 	public static void drawSlot(MatrixStack matrices, int x, int y, int z, float[] color) {
@@ -128,4 +296,16 @@ public class InventoryTooltipComponent implements ConvertibleTooltipData, Toolti
 	protected int getColumns() {
 		return this.columns;
 	}
+
+	/**
+	 * Represents the inventory of a container held in another inventory.
+	 *
+	 * @param container the container stack
+	 * @param component the tooltip component of its inventory
+	 */
+	record Nested(ItemStack container, InventoryTooltipComponent component) {
+		int getHeight() {
+			return Math.max(18, this.component.getHeight()) + 2;
+		}
+	}
 }
@@ -33,14 +33,13 @@ import net.minecraft.util.math.Matrix4f;
 import java.util.Optional;
 
 import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
-import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
 import com.github.reviversmc.advancedtooltips.JukeboxTooltipMode;
 
 /**
  * Represents a jukebox tooltip component. Displays the inserted disc description and an inventory slot with the disc in fancy mode.
  */
 public class JukeboxTooltipComponent extends InventoryTooltipComponent {
-	private final AdvancedTooltipsConfig config = AdvancedTooltips.getConfig();
+	private final JukeboxTooltipMode tooltipMode = TooltipFrameBudget.limit(AdvancedTooltips.getConfig().getJukeboxTooltipMode());
 	private final MusicDiscItem disc;
 
 	public JukeboxTooltipComponent(ItemStack discStack) {
@@ -67,7 +66,7 @@ public class JukeboxTooltipComponent extends InventoryTooltipComponent {
 	@Override
 	public int getHeight() {
 		int height = 10;
-		if (this.config.getJukeboxTooltipMode() == JukeboxTooltipMode.FANCY)
+		if (this.tooltipMode == JukeboxTooltipMode.FANCY)
 			height += 20;
 		return height;
 	}
@@ -85,7 +84,7 @@ public class JukeboxTooltipComponent extends InventoryTooltipComponent {
 
 	@Override
 	public void drawItems(TextRenderer textRenderer, int x, int y, MatrixStack matrices, ItemRenderer itemRenderer, int z) {
-		if (this.config.getJukeboxTooltipMode() == JukeboxTooltipMode.FANCY)
+		if (this.tooltipMode == JukeboxTooltipMode.FANCY)
 			super.drawItems(textRenderer, x, y + 10, matrices, itemRenderer, z);
 	}
 }
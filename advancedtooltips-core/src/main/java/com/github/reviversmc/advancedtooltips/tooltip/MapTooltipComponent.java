@@ -62,6 +62,9 @@ public class MapTooltipComponent implements ConvertibleTooltipData, TooltipCompo
 
 	@Override
 	public void drawItems(TextRenderer textRenderer, int x, int y, MatrixStack matrices, ItemRenderer itemRenderer, int z) {
+		if (!TooltipDwell.isSettled())
+			return;
+
 		var vertices = this.client.getBufferBuilders().getEntityVertexConsumers();
 		var map = this.client.gameRenderer.getMapRenderer();
 		var state = FilledMapItem.getMapState(this.map, this.client.world);
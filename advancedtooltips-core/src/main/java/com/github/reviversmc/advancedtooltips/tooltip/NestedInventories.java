@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
+import com.github.reviversmc.advancedtooltips.api.InventoryProvider;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import net.minecraft.item.BlockItem;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Expands the containers held in an inventory into nested inventory tooltips.
+ * <p>
+ * Inner inventories are only decoded when expanded, and are memoized per item and block entity data.
+ * The expansion is bounded by a maximum depth and by a total slot budget shared by the whole tree.
+ */
+final class NestedInventories {
+	/**
+	 * Maximum count of slots shown across every nested inventory of a tooltip.
+	 */
+	private static final int MAX_SLOTS = 512;
+	private static final int MAX_CACHED_CONTEXTS = 256;
+
+	private static final Object2ObjectLinkedOpenHashMap<Key, Optional<InventoryProvider.Context>> CONTEXTS = new Object2ObjectLinkedOpenHashMap<>();
+
+	private NestedInventories() {
+		throw new UnsupportedOperationException("NestedInventories only contains static-definitions");
+	}
+
+	/**
+	 * Expands the containers held in the given inventory.
+	 *
+	 * @param inventory the inventory
+	 * @param maxDepth the maximum count of nested levels to expand
+	 * @return the nested inventories, in the order of their containers
+	 */
+	static List<InventoryTooltipComponent.Nested> expand(List<ItemStack> inventory, int maxDepth) {
+		return expand(inventory, 1, maxDepth, new int[]{MAX_SLOTS});
+	}
+
+	/**
+	 * Forgets every decoded inventory.
+	 */
+	static void clear() {
+		synchronized (CONTEXTS) {
+			CONTEXTS.clear();
+		}
+	}
+
+	private static List<InventoryTooltipComponent.Nested> expand(List<ItemStack> inventory, int depth, int maxDepth, int[] budget) {
+		var containers = new ArrayList<ItemStack>();
+		for (int i = 0; i < inventory.size(); i++) {
+			var stack = inventory.get(i);
+			if (stack.getItem() instanceof BlockItem && BlockItem.getBlockEntityNbtFromStack(stack) != null)
+				containers.add(stack);
+		}
+
+		if (containers.isEmpty())
+			return List.of();
+
+		// Containers are decoded on the tooltip thread, within its decode budget, and only while the slot budget lasts.
+		var nested = new ArrayList<InventoryTooltipComponent.Nested>();
+		for (int i = 0; i < containers.size() && budget[0] > 0; i++) {
+			var context = decode(containers.get(i));
+			if (context == null)
+				continue;
+
+			int columns = InventoryTooltipComponent.getDefaultColumns(context.inventory().size());
+			// Nested inventories are never paged, their extra rows are cut instead.
+			int size = Math.min(context.inventory().size(), Math.min(budget[0], InventoryTooltipComponent.MAX_VISIBLE_ROWS * columns));
+			budget[0] -= size;
+
+			var childInventory = context.inventory().subList(0, size);
+			var children = depth < maxDepth ? expand(childInventory, depth + 1, maxDepth, budget) : List.<InventoryTooltipComponent.Nested>of();
+			nested.add(new InventoryTooltipComponent.Nested(containers.get(i),
+					new InventoryTooltipComponent(childInventory, columns, context.color(), children, false)));
+		}
+
+		return nested;
+	}
+
+	private static @Nullable InventoryProvider.Context decode(ItemStack stack) {
+		var key = new Key(stack.getItem(), BlockItem.getBlockEntityNbtFromStack(stack));
+
+		Optional<InventoryProvider.Context> context;
+		synchronized (CONTEXTS) {
+			context = CONTEXTS.getAndMoveToLast(key);
+		}
+
+		if (context == null) {
+			var config = AdvancedTooltips.getConfig().getContainersConfig().forBlock(((BlockItem) stack.getItem()).getBlock());
+			context = Optional.ofNullable(InventoryProvider.searchInventoryContextOf(stack, config));
+
+			// Inventories truncated by the decode budget of the current tooltip are not memoized,
+			// lazy views do not keep the stacks they could not decode so they may always be memoized.
+			if (DecodeBudget.isExceeded())
+				return context.orElse(null);
+
+			synchronized (CONTEXTS) {
+				CONTEXTS.putAndMoveToLast(key.copy(), context);
+				if (CONTEXTS.size() > MAX_CACHED_CONTEXTS)
+					CONTEXTS.removeFirst();
+			}
+		}
+
+		return context.orElse(null);
+	}
+
+	/**
+	 * Represents an item and the block entity data of a stack, the cached keys own a copy of the data.
+	 */
+	private record Key(Item item, NbtCompound nbt) {
+		Key copy() {
+			return new Key(this.item, this.nbt.copy());
+		}
+	}
+}
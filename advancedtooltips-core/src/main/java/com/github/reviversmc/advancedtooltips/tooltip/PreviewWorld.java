@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.fluid.Fluid;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.fluid.Fluids;
+import net.minecraft.item.map.MapState;
+import net.minecraft.recipe.RecipeManager;
+import net.minecraft.scoreboard.Scoreboard;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.registry.DynamicRegistryManager;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.util.registry.RegistryEntry;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.Difficulty;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.BiomeKeys;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkManager;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.light.LightingProvider;
+import net.minecraft.world.dimension.DimensionTypes;
+import net.minecraft.world.entity.EntityIndex;
+import net.minecraft.world.entity.EntityLookup;
+import net.minecraft.world.entity.EntityTrackingStatus;
+import net.minecraft.world.entity.SectionedEntityCache;
+import net.minecraft.world.entity.SimpleEntityLookup;
+import net.minecraft.world.event.GameEvent;
+import net.minecraft.world.tick.EmptyTickSchedulers;
+import net.minecraft.world.tick.QueryableTickScheduler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Represents a minimal client-side world used to create tooltip preview entities.
+ * <p>
+ * It has no chunks, no lighting and no entities, every block is air.
+ * Preview entities created in it do not depend on the world the player is in, which means they can be built outside of a world
+ * and cannot keep the real world reachable once the player disconnects.
+ */
+final class PreviewWorld extends World {
+	private static PreviewWorld instance;
+
+	private final DynamicRegistryManager registryManager;
+	private final RegistryEntry<Biome> biome;
+	private final PreviewChunkManager chunkManager = new PreviewChunkManager();
+	private final EntityLookup<Entity> entityLookup = new SimpleEntityLookup<>(new EntityIndex<>(),
+			new SectionedEntityCache<>(Entity.class, pos -> EntityTrackingStatus.HIDDEN));
+	private final Scoreboard scoreboard = new Scoreboard();
+	private final RecipeManager recipeManager = new RecipeManager();
+
+	private PreviewWorld(DynamicRegistryManager registryManager) {
+		super(new ClientWorld.Properties(Difficulty.NORMAL, false, false), World.OVERWORLD,
+				registryManager.get(Registry.DIMENSION_TYPE_KEY).getEntry(DimensionTypes.OVERWORLD).orElseThrow(),
+				MinecraftClient.getInstance()::getProfiler, true, false, 0, 0);
+		this.registryManager = registryManager;
+		this.biome = registryManager.get(Registry.BIOME_KEY).getEntry(BiomeKeys.PLAINS).orElseThrow();
+	}
+
+	/**
+	 * Returns the preview world, it is created on first use.
+	 *
+	 * @return the preview world
+	 */
+	static PreviewWorld get() {
+		if (instance == null) {
+			instance = new PreviewWorld(DynamicRegistryManager.BUILTIN.get());
+		}
+		return instance;
+	}
+
+	@Override
+	public BlockState getBlockState(BlockPos pos) {
+		return Blocks.AIR.getDefaultState();
+	}
+
+	@Override
+	public FluidState getFluidState(BlockPos pos) {
+		return Fluids.EMPTY.getDefaultState();
+	}
+
+	@Override
+	public @Nullable BlockEntity getBlockEntity(BlockPos pos) {
+		return null;
+	}
+
+	@Override
+	public void updateListeners(BlockPos pos, BlockState oldState, BlockState newState, int flags) {
+	}
+
+	@Override
+	public void playSound(@Nullable PlayerEntity except, double x, double y, double z, SoundEvent sound, SoundCategory category,
+	                      float volume, float pitch, long seed) {
+	}
+
+	@Override
+	public void playSoundFromEntity(@Nullable PlayerEntity except, Entity entity, SoundEvent sound, SoundCategory category,
+	                                float volume, float pitch, long seed) {
+	}
+
+	@Override
+	public String asString() {
+		return "PreviewWorld";
+	}
+
+	@Override
+	public @Nullable Entity getEntityById(int id) {
+		return null;
+	}
+
+	@Override
+	public @Nullable MapState getMapState(String id) {
+		return null;
+	}
+
+	@Override
+	public void putMapState(String id, MapState state) {
+	}
+
+	@Override
+	public int getNextMapId() {
+		return 0;
+	}
+
+	@Override
+	public void setBlockBreakingInfo(int entityId, BlockPos pos, int progress) {
+	}
+
+	@Override
+	public Scoreboard getScoreboard() {
+		return this.scoreboard;
+	}
+
+	@Override
+	public RecipeManager getRecipeManager() {
+		return this.recipeManager;
+	}
+
+	@Override
+	protected EntityLookup<Entity> getEntityLookup() {
+		return this.entityLookup;
+	}
+
+	@Override
+	public QueryableTickScheduler<Block> getBlockTickScheduler() {
+		return EmptyTickSchedulers.getClientTickScheduler();
+	}
+
+	@Override
+	public QueryableTickScheduler<Fluid> getFluidTickScheduler() {
+		return EmptyTickSchedulers.getClientTickScheduler();
+	}
+
+	@Override
+	public ChunkManager getChunkManager() {
+		return this.chunkManager;
+	}
+
+	@Override
+	public void syncWorldEvent(@Nullable PlayerEntity player, int eventId, BlockPos pos, int data) {
+	}
+
+	@Override
+	public void emitGameEvent(GameEvent event, Vec3d emitterPos, GameEvent.Emitter emitter) {
+	}
+
+	@Override
+	public DynamicRegistryManager getRegistryManager() {
+		return this.registryManager;
+	}
+
+	@Override
+	public float getBrightness(Direction direction, boolean shaded) {
+		return 1.f;
+	}
+
+	@Override
+	public List<? extends PlayerEntity> getPlayers() {
+		return List.of();
+	}
+
+	@Override
+	public RegistryEntry<Biome> getGeneratorStoredBiome(int biomeX, int biomeY, int biomeZ) {
+		return this.biome;
+	}
+
+	private final class PreviewChunkManager extends ChunkManager {
+		private final LightingProvider lightingProvider = new LightingProvider(this, false, false);
+
+		@Override
+		public @Nullable Chunk getChunk(int x, int z, ChunkStatus leastStatus, boolean create) {
+			return null;
+		}
+
+		@Override
+		public void tick(BooleanSupplier shouldKeepTicking, boolean tickChunks) {
+		}
+
+		@Override
+		public String getDebugString() {
+			return "PreviewChunkManager";
+		}
+
+		@Override
+		public int getLoadedChunkCount() {
+			return 0;
+		}
+
+		@Override
+		public LightingProvider getLightingProvider() {
+			return this.lightingProvider;
+		}
+
+		@Override
+		public BlockView getWorld() {
+			return PreviewWorld.this;
+		}
+	}
+}
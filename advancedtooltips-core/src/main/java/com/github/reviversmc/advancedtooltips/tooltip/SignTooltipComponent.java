@@ -49,7 +49,7 @@ import java.util.Optional;
 
 public class SignTooltipComponent implements ConvertibleTooltipData, TooltipComponent {
 	private final MinecraftClient client = MinecraftClient.getInstance();
-	private final SignTooltipMode tooltipMode = AdvancedTooltips.getConfig().getSignTooltipMode();
+	private final SignTooltipMode tooltipMode = TooltipFrameBudget.limit(AdvancedTooltips.getConfig().getSignTooltipMode());
 	private final SignType type;
 	private final OrderedText[] text;
 	private final DyeColor color;
@@ -81,7 +81,9 @@ public class SignTooltipComponent implements ConvertibleTooltipData, TooltipComp
 
 		var lines = new OrderedText[4];
 		for (int i = 0; i < 4; ++i) {
-			var serialized = nbt.getString("Text" + (i + 1));
+			var key = "Text" + (i + 1);
+			// Lines over the decode budget are left blank.
+			var serialized = DecodeBudget.tryDecode(nbt.get(key)) ? nbt.getString(key) : "";
 			var text = Text.Serializer.fromJson(serialized.isEmpty() ? "\"\"" : serialized).asOrderedText();
 			lines[i] = text;
 		}
@@ -151,17 +153,19 @@ public class SignTooltipComponent implements ConvertibleTooltipData, TooltipComp
 		matrices.push();
 		matrices.translate(x + 2, y, z);
 
-		matrices.push();
-		matrices.translate(45, 56, 0);
-		matrices.scale(65, 65, -65);
-		var immediate = this.client.getBufferBuilders().getEntityVertexConsumers();
-		var spriteIdentifier = TexturedRenderLayers.getSignTextureId(this.type);
-		var vertexConsumer = spriteIdentifier.getVertexConsumer(immediate, this.model::getLayer);
-		this.model.stick.visible = false;
-		this.model.root.visible = true;
-		this.model.root.render(matrices, vertexConsumer, LightmapTextureManager.MAX_LIGHT_COORDINATE, OverlayTexture.DEFAULT_UV);
-		immediate.draw();
-		matrices.pop();
+		if (TooltipDwell.isSettled()) {
+			matrices.push();
+			matrices.translate(45, 56, 0);
+			matrices.scale(65, 65, -65);
+			var immediate = this.client.getBufferBuilders().getEntityVertexConsumers();
+			var spriteIdentifier = TexturedRenderLayers.getSignTextureId(this.type);
+			var vertexConsumer = spriteIdentifier.getVertexConsumer(immediate, this.model::getLayer);
+			this.model.stick.visible = false;
+			this.model.root.visible = true;
+			this.model.root.render(matrices, vertexConsumer, LightmapTextureManager.MAX_LIGHT_COORDINATE, OverlayTexture.DEFAULT_UV);
+			immediate.draw();
+			matrices.pop();
+		}
 
 		matrices.translate(0, 4, 10);
 
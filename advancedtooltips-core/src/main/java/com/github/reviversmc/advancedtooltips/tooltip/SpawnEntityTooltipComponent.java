@@ -17,7 +17,6 @@
 
 package com.github.reviversmc.advancedtooltips.tooltip;
 
-import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.item.TooltipData;
@@ -29,17 +28,25 @@ import net.minecraft.item.BlockItem;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
-import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.MobSpawnerLogic;
-import net.minecraft.world.World;
+import net.minecraft.util.Util;
 
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
 import com.github.reviversmc.advancedtooltips.AdvancedTooltipsConfig;
 import com.github.reviversmc.advancedtooltips.mixin.EntityAccessor;
 
 public class SpawnEntityTooltipComponent extends EntityTooltipComponent<AdvancedTooltipsConfig.EntityConfig> {
+	private static final Pattern VALID_ENTITY_ID = Pattern.compile("[a-z0-9/._-]*");
+	private static final NbtCompound DEFAULT_ENTITY_DATA = Util.make(new NbtCompound(), nbt -> {
+		var villagerData = new NbtCompound();
+		villagerData.putString("profession", "minecraft:none");
+		villagerData.putInt("level", 1);
+		villagerData.putString("type", "minecraft:plains");
+		nbt.put("VillagerData", villagerData);
+	});
+
 	private final Entity entity;
 
 	public SpawnEntityTooltipComponent(AdvancedTooltipsConfig.EntityConfig config, Entity entity) {
@@ -52,43 +59,24 @@ public class SpawnEntityTooltipComponent extends EntityTooltipComponent<Advanced
 		if (!entitiesConfig.getSpawnEggConfig().isEnabled() || entityType == null)
 			return Optional.empty();
 
-		var client = MinecraftClient.getInstance();
-		var entity = entityType.create(client.world);
-		if (entity != null) {
-			adjustEntity(entity, itemNbt, entitiesConfig);
-			var itemEntityNbt = itemNbt.getCompound("EntityTag").copy();
-
-			if (!itemEntityNbt.contains("VillagerData")) {
-				var villagerData = new NbtCompound();
-				villagerData.putString("profession", "minecraft:none");
-				villagerData.putInt("level", 1);
-				villagerData.putString("type", "minecraft:plains");
-				itemEntityNbt.put("VillagerData", villagerData);
-			}
+		var itemEntityNbt = itemNbt.getCompound("EntityTag");
 
-			if (itemEntityNbt.contains(Entity.ID_KEY, NbtElement.STRING_TYPE)) { // The spawn egg specifies its own entity type.
-				var id = itemEntityNbt.getString(Entity.ID_KEY);
-				if (id.startsWith("minecraft:")) {
-					id = id.substring(10);
-				}
-				if (id.replaceAll("[^a-z0-9/._-]", "").matches(id)) {
-					itemEntityNbt.putString(Entity.ID_KEY, id);
-					Optional<EntityType<?>> specifiedEntityType = EntityType.fromNbt(itemEntityNbt);
-					if (specifiedEntityType.isPresent()) {
-						var actualEntity = specifiedEntityType.get().create(client.world);
-						if (actualEntity != null) {
-							entity = actualEntity;
-							adjustEntity(entity, itemNbt, entitiesConfig);
-						}
-					}
+		if (itemEntityNbt.contains(Entity.ID_KEY, NbtElement.STRING_TYPE)) { // The spawn egg specifies its own entity type.
+			var id = itemEntityNbt.getString(Entity.ID_KEY);
+			if (id.startsWith("minecraft:")) {
+				id = id.substring(10);
+			}
+			if (VALID_ENTITY_ID.matcher(id).matches()) {
+				var specifiedEntityType = EntityType.get(id);
+				if (specifiedEntityType.isPresent()) {
+					entityType = specifiedEntityType.get();
 				}
 			}
+		}
 
-			var entityTag = entity.writeNbt(new NbtCompound());
-			var uuid = entity.getUuid();
-			entityTag.copyFrom(itemEntityNbt);
-			entity.setUuid(uuid);
-			entity.readNbt(entityTag);
+		var entity = getPreviewEntity(entityType, itemNbt, DEFAULT_ENTITY_DATA);
+		if (entity != null) {
+			adjustEntity(entity, itemNbt, entitiesConfig);
 			return Optional.of(new SpawnEntityTooltipComponent(entitiesConfig.getSpawnEggConfig(), entity));
 		}
 
@@ -104,16 +92,12 @@ public class SpawnEntityTooltipComponent extends EntityTooltipComponent<Advanced
 		if (nbt == null)
 			return Optional.empty();
 
-		var client = MinecraftClient.getInstance();
-
-		var logic = new MobSpawnerLogic() {
-			@Override
-			public void sendStatus(World world, BlockPos pos, int eventType) {
-			}
-		};
-		logic.readNbt(client.world, client.player.getBlockPos(), nbt);
+		// Only the entity data of the next spawn is needed, the spawner logic itself would build a new entity every frame.
+		var entityData = nbt.getCompound("SpawnData").getCompound("entity");
+		if (!entityData.contains(Entity.ID_KEY, NbtElement.STRING_TYPE))
+			return Optional.empty();
 
-		var entity = logic.getRenderedEntity(client.world);
+		var entity = getPreviewEntity(entityData);
 		if (entity != null) {
 			return Optional.of(new SpawnEntityTooltipComponent(entitiesConfig.getMobSpawnerConfig(), entity));
 		}
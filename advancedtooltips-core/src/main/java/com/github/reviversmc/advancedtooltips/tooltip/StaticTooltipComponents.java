@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.block.entity.BeaconBlockEntity;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.item.ArmorItem;
+import net.minecraft.item.FoodComponent;
+import net.minecraft.util.registry.Registry;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the tooltip components which only depend on static item properties, so they are shared instead of built for every tooltip.
+ * <p>
+ * The components of every registered item, and of every beacon effect combination, are built on first use once registries are frozen,
+ * and are built again once the configuration changes.
+ * Values outside of those, like food components created on the fly by other mods, get a new component every time.
+ */
+public final class StaticTooltipComponents {
+	private static final StatusEffectTooltipComponent SPECTRAL_ARROW = new StatusEffectTooltipComponent(
+			List.of(new StatusEffectInstance(StatusEffects.GLOWING, 200, 0)), 1.f
+	);
+
+	private static volatile @Nullable Components components;
+
+	private StaticTooltipComponents() {
+		throw new UnsupportedOperationException("StaticTooltipComponents only contains static-definitions");
+	}
+
+	public static FoodTooltipComponent getFood(FoodComponent food) {
+		var component = get().food().get(food);
+		return component != null ? component : new FoodTooltipComponent(food);
+	}
+
+	public static StatusEffectTooltipComponent getFoodEffects(FoodComponent food) {
+		var component = get().foodEffects().get(food);
+		return component != null ? component : new StatusEffectTooltipComponent(food.getStatusEffects());
+	}
+
+	public static ArmorTooltipComponent getArmor(int protection) {
+		var component = get().armor().get(protection);
+		return component != null ? component : new ArmorTooltipComponent(protection);
+	}
+
+	public static StatusEffectTooltipComponent getSpectralArrow() {
+		return SPECTRAL_ARROW;
+	}
+
+	/**
+	 * Returns the component of the effects of a beacon.
+	 *
+	 * @param primary the primary effect, may be {@code null}
+	 * @param secondary the secondary effect, may be {@code null}
+	 * @return the beacon effects component
+	 */
+	public static StatusEffectTooltipComponent getBeacon(@Nullable StatusEffect primary, @Nullable StatusEffect secondary) {
+		var component = get().beacon().get(getBeaconKey(primary, secondary));
+		return component != null ? component : createBeacon(primary, secondary);
+	}
+
+	/**
+	 * Forgets every shared component, they are built again on next use.
+	 */
+	public static void clear() {
+		components = null;
+	}
+
+	private static Components get() {
+		var current = components;
+		if (current == null) {
+			// Concurrent first uses may both build the components, which are equivalent.
+			current = Components.build();
+			components = current;
+		}
+		return current;
+	}
+
+	private static long getBeaconKey(@Nullable StatusEffect primary, @Nullable StatusEffect secondary) {
+		long primaryId = primary == null ? 0 : Registry.STATUS_EFFECT.getRawId(primary) + 1;
+		long secondaryId = secondary == null ? 0 : Registry.STATUS_EFFECT.getRawId(secondary) + 1;
+		return primaryId << 32 | secondaryId;
+	}
+
+	private static StatusEffectTooltipComponent createBeacon(@Nullable StatusEffect primary, @Nullable StatusEffect secondary) {
+		var effects = new ArrayList<StatusEffectInstance>(2);
+		if (primary != null && primary == secondary) {
+			effects.add(new StatusEffectInstance(primary, 200, 1));
+		} else {
+			if (primary != null)
+				effects.add(new StatusEffectInstance(primary, 200, 0));
+			if (secondary != null)
+				effects.add(new StatusEffectInstance(secondary, 200, 0));
+		}
+		return new StatusEffectTooltipComponent(List.copyOf(effects), 1.f);
+	}
+
+	private record Components(Reference2ObjectMap<FoodComponent, FoodTooltipComponent> food,
+	                          Reference2ObjectMap<FoodComponent, StatusEffectTooltipComponent> foodEffects,
+	                          Int2ObjectMap<ArmorTooltipComponent> armor,
+	                          Long2ObjectMap<StatusEffectTooltipComponent> beacon) {
+		static Components build() {
+			var food = new Reference2ObjectOpenHashMap<FoodComponent, FoodTooltipComponent>();
+			var foodEffects = new Reference2ObjectOpenHashMap<FoodComponent, StatusEffectTooltipComponent>();
+			var armor = new Int2ObjectOpenHashMap<ArmorTooltipComponent>();
+
+			for (var item : Registry.ITEM) {
+				var foodComponent = item.getFoodComponent();
+				if (foodComponent != null && !food.containsKey(foodComponent)) {
+					food.put(foodComponent, new FoodTooltipComponent(foodComponent));
+					foodEffects.put(foodComponent, new StatusEffectTooltipComponent(foodComponent.getStatusEffects()));
+				}
+
+				if (item instanceof ArmorItem armorItem) {
+					int protection = armorItem.getMaterial().getProtectionAmount(armorItem.getSlotType());
+					armor.computeIfAbsent(protection, ArmorTooltipComponent::new);
+				}
+			}
+
+			var beaconEffects = new ArrayList<StatusEffect>();
+			beaconEffects.add(null);
+			for (var levelEffects : BeaconBlockEntity.EFFECTS_BY_LEVEL) {
+				for (var effect : levelEffects) {
+					if (!beaconEffects.contains(effect))
+						beaconEffects.add(effect);
+				}
+			}
+
+			var beacon = new Long2ObjectOpenHashMap<StatusEffectTooltipComponent>();
+			for (var primary : beaconEffects) {
+				for (var secondary : beaconEffects) {
+					beacon.put(getBeaconKey(primary, secondary), createBeacon(primary, secondary));
+				}
+			}
+
+			return new Components(food, foodEffects, armor, beacon);
+		}
+	}
+}
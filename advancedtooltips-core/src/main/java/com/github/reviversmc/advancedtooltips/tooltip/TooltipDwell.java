@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tracks for how long the same stack has been hovered, so the expensive parts of its tooltip are only drawn once the player stops on it.
+ * <p>
+ * Until the configured dwell time has passed, tooltips only draw their cheap parts: text, slot grids and reserved space.
+ */
+public final class TooltipDwell {
+	/**
+	 * Time after which a stack which stopped being hovered is considered left, even if the same stack is hovered again.
+	 */
+	private static final long HOVER_TIMEOUT = 1000;
+
+	private static @Nullable ItemStack hoveredStack;
+	private static long hoverStart;
+	private static long lastHover;
+	private static int hoverId;
+
+	private TooltipDwell() {
+		throw new UnsupportedOperationException("TooltipDwell only contains static-definitions");
+	}
+
+	/**
+	 * Records that the tooltip of the given stack is being rendered by a screen.
+	 * <p>
+	 * Only the stack hovered in the screen is tracked, the tooltips built for nested containers or by other mods do not reset the hover.
+	 *
+	 * @param stack the hovered stack
+	 */
+	public static void onHover(ItemStack stack) {
+		if (!RenderSystem.isOnRenderThread())
+			return;
+
+		long time = Util.getMeasuringTimeMs();
+		if (hoveredStack == null || time - lastHover > HOVER_TIMEOUT
+				|| (stack != hoveredStack && !ItemStack.areEqual(stack, hoveredStack))) {
+			hoverStart = time;
+			hoverId++;
+		}
+		hoveredStack = stack;
+		lastHover = time;
+	}
+
+	/**
+	 * Returns the identifier of the current hover, which changes every time a new stack starts being hovered.
+	 *
+	 * @return the current hover identifier
+	 */
+	public static int getHoverId() {
+		return hoverId;
+	}
+
+	/**
+	 * Returns whether the hovered stack has been hovered for long enough to draw the expensive parts of its tooltip.
+	 *
+	 * @return {@code true} if the full tooltip should be drawn, or {@code false} if only its cheap parts should be
+	 */
+	public static boolean isSettled() {
+		int dwellTime = AdvancedTooltips.getConfig().getDwellTime();
+		return dwellTime <= 0 || Util.getMeasuringTimeMs() - hoverStart >= dwellTime;
+	}
+}
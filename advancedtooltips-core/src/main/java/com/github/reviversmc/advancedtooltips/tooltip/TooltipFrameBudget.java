@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
+import com.github.reviversmc.advancedtooltips.JukeboxTooltipMode;
+import com.github.reviversmc.advancedtooltips.SignTooltipMode;
+import net.minecraft.util.Util;
+
+/**
+ * Governs the detail of tooltips from their recent draw cost.
+ * <p>
+ * When drawing tooltips takes longer than the configured frame budget, tooltips are stepped down one {@link Level} at a time.
+ * They are stepped back up once the cost stays well under the budget, waiting longer each time a step up had to be reverted.
+ */
+public final class TooltipFrameBudget {
+	private static final double SMOOTHING = 0.1;
+	private static final long STEP_DOWN_DELAY = 250;
+	private static final long MIN_STEP_UP_DELAY = 2000;
+	private static final long MAX_STEP_UP_DELAY = 32000;
+
+	private static Level level = Level.FULL;
+	private static double averageCost = -1;
+	private static long drawStart;
+	private static long lastChange;
+	private static boolean lastChangeWasStepUp = false;
+	private static long stepUpDelay = MIN_STEP_UP_DELAY;
+
+	private TooltipFrameBudget() {
+		throw new UnsupportedOperationException("TooltipFrameBudget only contains static-definitions");
+	}
+
+	/**
+	 * Marks the start of a tooltip draw.
+	 */
+	public static void beginDraw() {
+		drawStart = Util.getMeasuringTimeNano();
+	}
+
+	/**
+	 * Marks the end of a tooltip draw and adjusts the tooltip detail level from its cost.
+	 */
+	public static void endDraw() {
+		update(Util.getMeasuringTimeNano() - drawStart, Util.getMeasuringTimeMs());
+	}
+
+	/**
+	 * Adjusts the tooltip detail level from the cost of a tooltip draw.
+	 *
+	 * @param cost the cost of the draw in nanoseconds
+	 * @param time the time the draw ended at in milliseconds
+	 */
+	static void update(long cost, long time) {
+		double budget = AdvancedTooltips.getConfig().getFrameBudget() * 1_000_000.0;
+		if (budget <= 0) {
+			level = Level.FULL;
+			averageCost = -1;
+			return;
+		}
+
+		averageCost = averageCost < 0 ? cost : averageCost + (cost - averageCost) * SMOOTHING;
+
+		long sinceLastChange = time - lastChange;
+		if (averageCost > budget && level.ordinal() < Level.values().length - 1 && sinceLastChange >= STEP_DOWN_DELAY) {
+			// The previous step up did not hold, wait longer before trying again.
+			if (lastChangeWasStepUp && sinceLastChange < stepUpDelay * 2)
+				stepUpDelay = Math.min(stepUpDelay * 2, MAX_STEP_UP_DELAY);
+
+			setLevel(Level.values()[level.ordinal() + 1], time, false);
+		} else if (averageCost < budget / 2 && level != Level.FULL && sinceLastChange >= stepUpDelay) {
+			if (sinceLastChange >= MAX_STEP_UP_DELAY)
+				stepUpDelay = MIN_STEP_UP_DELAY;
+
+			setLevel(Level.values()[level.ordinal() - 1], time, true);
+		}
+	}
+
+	private static void setLevel(Level newLevel, long time, boolean stepUp) {
+		level = newLevel;
+		lastChange = time;
+		lastChangeWasStepUp = stepUp;
+		// The cost of the previous level does not tell anything about the new one.
+		averageCost = -1;
+	}
+
+	/**
+	 * Restores the full detail level and forgets the recent draw costs, as they were measured with the previous configuration.
+	 */
+	public static void reset() {
+		level = Level.FULL;
+		averageCost = -1;
+		lastChange = 0;
+		lastChangeWasStepUp = false;
+		stepUpDelay = MIN_STEP_UP_DELAY;
+	}
+
+	/**
+	 * Returns the current tooltip detail level.
+	 *
+	 * @return the current level
+	 */
+	public static Level getLevel() {
+		return level;
+	}
+
+	/**
+	 * Returns whether entities may spin in tooltips.
+	 *
+	 * @return {@code true} if entities may spin, or {@code false} if they should be static
+	 */
+	public static boolean allowsSpin() {
+		return level.ordinal() < Level.STATIC_ENTITIES.ordinal();
+	}
+
+	/**
+	 * Returns whether inventories should be compacted regardless of their configuration.
+	 *
+	 * @return {@code true} if inventories should be compact, or {@code false} otherwise
+	 */
+	public static boolean forcesCompact() {
+		return level.ordinal() >= Level.COMPACT_INVENTORIES.ordinal();
+	}
+
+	/**
+	 * Limits the given sign tooltip mode to the current level.
+	 *
+	 * @param mode the configured mode
+	 * @return the mode to use
+	 */
+	public static SignTooltipMode limit(SignTooltipMode mode) {
+		if (mode == SignTooltipMode.FANCY && level.ordinal() >= Level.FAST_MODES.ordinal())
+			return SignTooltipMode.FAST;
+		return mode;
+	}
+
+	/**
+	 * Limits the given jukebox tooltip mode to the current level.
+	 *
+	 * @param mode the configured mode
+	 * @return the mode to use
+	 */
+	public static JukeboxTooltipMode limit(JukeboxTooltipMode mode) {
+		if (mode == JukeboxTooltipMode.FANCY && level.ordinal() >= Level.FAST_MODES.ordinal())
+			return JukeboxTooltipMode.FAST;
+		return mode;
+	}
+
+	/**
+	 * Represents the tooltip detail levels, each level also includes the reductions of the previous ones.
+	 */
+	public enum Level {
+		/**
+		 * Every tooltip is drawn as configured.
+		 */
+		FULL,
+		/**
+		 * Entities no longer spin.
+		 */
+		STATIC_ENTITIES,
+		/**
+		 * Fancy sign and jukebox tooltips are drawn in their fast mode.
+		 */
+		FAST_MODES,
+		/**
+		 * Inventories are always compacted.
+		 */
+		COMPACT_INVENTORIES
+	}
+}
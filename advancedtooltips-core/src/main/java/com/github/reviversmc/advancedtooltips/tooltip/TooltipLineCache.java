@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.dynamic.GlobalPos;
+
+import java.util.List;
+
+/**
+ * Caches the text lines appended to tooltips which only depend on a small value, like the target of a lodestone compass or a repair cost.
+ * <p>
+ * The cached lines are never handed out, callers get copies which they and later mods may freely modify.
+ * Copying a built line is still cheaper than building its translation again.
+ * The cache is cleared once client resources are reloaded, which includes language changes.
+ */
+public final class TooltipLineCache {
+	private static final int MAX_CACHED_LINES = 256;
+
+	private static final Object2ObjectLinkedOpenHashMap<GlobalPos, List<Text>> LODESTONE_LINES = new Object2ObjectLinkedOpenHashMap<>();
+	private static final Int2ObjectLinkedOpenHashMap<Text> REPAIR_COST_LINES = new Int2ObjectLinkedOpenHashMap<>();
+
+	private TooltipLineCache() {
+		throw new UnsupportedOperationException("TooltipLineCache only contains static-definitions");
+	}
+
+	/**
+	 * Appends copies of the lines describing the target of a lodestone compass to the given tooltip.
+	 *
+	 * @param tooltip the tooltip
+	 * @param globalPos the lodestone position
+	 */
+	public static void appendLodestoneLines(List<Text> tooltip, GlobalPos globalPos) {
+		for (var line : getLodestoneLines(globalPos)) {
+			tooltip.add(line.copy());
+		}
+	}
+
+	/**
+	 * Returns a copy of the line describing the given repair cost.
+	 *
+	 * @param repairCost the repair cost
+	 * @return the line
+	 */
+	public static Text getRepairCostLine(int repairCost) {
+		return getCachedRepairCostLine(repairCost).copy();
+	}
+
+	private static List<Text> getLodestoneLines(GlobalPos globalPos) {
+		synchronized (LODESTONE_LINES) {
+			var lines = LODESTONE_LINES.getAndMoveToLast(globalPos);
+			if (lines != null)
+				return lines;
+		}
+
+		var pos = globalPos.getPos();
+		var posText = Text.literal("X: " + pos.getX() + ", Y: " + pos.getY() + ", Z: " + pos.getZ())
+				.formatted(Formatting.GOLD);
+
+		var lines = List.<Text>of(
+				Text.translatable("advancedtooltips.tooltip.lodestone_compass.target", posText).formatted(Formatting.GRAY),
+				Text.translatable("advancedtooltips.tooltip.lodestone_compass.dimension",
+								Text.literal(globalPos.getDimension().getValue().toString()).formatted(Formatting.GOLD))
+						.formatted(Formatting.GRAY)
+		);
+
+		synchronized (LODESTONE_LINES) {
+			LODESTONE_LINES.putAndMoveToLast(globalPos, lines);
+			if (LODESTONE_LINES.size() > MAX_CACHED_LINES)
+				LODESTONE_LINES.removeFirst();
+		}
+		return lines;
+	}
+
+	private static Text getCachedRepairCostLine(int repairCost) {
+		synchronized (REPAIR_COST_LINES) {
+			var line = REPAIR_COST_LINES.getAndMoveToLast(repairCost);
+			if (line != null)
+				return line;
+		}
+
+		Text line = Text.translatable("advancedtooltips.tooltip.repair_cost", repairCost).formatted(Formatting.GRAY);
+
+		synchronized (REPAIR_COST_LINES) {
+			REPAIR_COST_LINES.putAndMoveToLast(repairCost, line);
+			if (REPAIR_COST_LINES.size() > MAX_CACHED_LINES)
+				REPAIR_COST_LINES.removeFirst();
+		}
+		return line;
+	}
+
+	/**
+	 * Forgets every cached line.
+	 */
+	public static void clear() {
+		synchronized (LODESTONE_LINES) {
+			LODESTONE_LINES.clear();
+		}
+		synchronized (REPAIR_COST_LINES) {
+			REPAIR_COST_LINES.clear();
+		}
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips;
+
+import com.github.reviversmc.advancedtooltips.api.BulkTooltips;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.item.TooltipContext;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.potion.PotionUtil;
+import net.minecraft.text.Text;
+import net.minecraft.util.registry.Registry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds the tooltips of every potion and tipped arrow from several threads at once, with and without {@link BulkTooltips#run(Supplier)},
+ * and checks that each one matches the tooltip built beforehand on a single thread.
+ */
+class EffectTooltipsConcurrencyTest {
+	private static final int THREADS = 4;
+	private static final int ROUNDS = 20;
+
+	private static List<ItemStack> stacks;
+
+	@BeforeAll
+	static void bootstrap() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+
+		stacks = new ArrayList<>();
+		for (var potion : Registry.POTION) {
+			stacks.add(PotionUtil.setPotion(new ItemStack(Items.POTION), potion));
+			stacks.add(PotionUtil.setPotion(new ItemStack(Items.TIPPED_ARROW), potion));
+		}
+	}
+
+	private static List<String> getTooltipLines(ItemStack stack, boolean bulk) {
+		Supplier<List<String>> build = () -> stack.getTooltip(null, TooltipContext.Default.NORMAL).stream().map(Text::getString).toList();
+		return bulk ? BulkTooltips.run(build) : build.get();
+	}
+
+	@Test
+	void concurrentTooltipsMatch() {
+		var expected = stacks.stream().map(stack -> getTooltipLines(stack, false)).toList();
+		var expectedBulk = stacks.stream().map(stack -> getTooltipLines(stack, true)).toList();
+
+		var mismatches = new AtomicInteger();
+		var failures = new AtomicInteger();
+		var firstMismatch = new AtomicReference<String>();
+		var firstFailure = new AtomicReference<Throwable>();
+
+		var executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			var tasks = new CompletableFuture<?>[THREADS];
+			for (int thread = 0; thread < THREADS; thread++) {
+				boolean bulk = thread % 2 == 0;
+				tasks[thread] = CompletableFuture.runAsync(() -> {
+					for (int round = 0; round < ROUNDS; round++) {
+						for (int i = 0; i < stacks.size(); i++) {
+							try {
+								var lines = getTooltipLines(stacks.get(i), bulk);
+								var expectedLines = (bulk ? expectedBulk : expected).get(i);
+								if (!lines.equals(expectedLines)) {
+									mismatches.incrementAndGet();
+									firstMismatch.compareAndSet(null, stacks.get(i) + (bulk ? " in bulk" : "")
+											+ ": expected " + expectedLines + " but got " + lines);
+								}
+							} catch (RuntimeException e) {
+								failures.incrementAndGet();
+								firstFailure.compareAndSet(null, e);
+							}
+						}
+					}
+				}, executor);
+			}
+			CompletableFuture.allOf(tasks).join();
+		} finally {
+			executor.shutdown();
+		}
+
+		if (firstFailure.get() != null)
+			fail(failures.get() + " tooltips failed to build.", firstFailure.get());
+		assertEquals(0, mismatches.get(), () -> mismatches.get() + " tooltips did not match, first one: " + firstMismatch.get());
+	}
+}
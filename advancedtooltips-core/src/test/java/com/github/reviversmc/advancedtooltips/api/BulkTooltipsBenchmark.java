@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.item.TooltipContext;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.registry.Registry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds the tooltip of every registered item like recipe viewers do to index them for search, once normally and once in bulk.
+ * <p>
+ * Tooltips are built off the render thread, like search indexes built in the background. Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+class BulkTooltipsBenchmark {
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int MEASURED_ROUNDS = 20;
+
+	private static List<ItemStack> stacks;
+
+	@BeforeAll
+	static void bootstrap() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+		stacks = Registry.ITEM.stream().map(ItemStack::new).toList();
+	}
+
+	private static int buildTooltips(boolean bulk) {
+		if (bulk) {
+			return BulkTooltips.run(() -> buildTooltips(false));
+		}
+
+		int lines = 0;
+		for (var stack : stacks) {
+			lines += stack.getTooltip(null, TooltipContext.Default.NORMAL).size();
+		}
+		return lines;
+	}
+
+	private static long measure(boolean bulk) {
+		for (int round = 0; round < WARMUP_ROUNDS; round++) {
+			buildTooltips(bulk);
+		}
+
+		long start = System.nanoTime();
+		for (int round = 0; round < MEASURED_ROUNDS; round++) {
+			buildTooltips(bulk);
+		}
+		return (System.nanoTime() - start) / MEASURED_ROUNDS;
+	}
+
+	@Test
+	void buildRegistryTooltips() {
+		// Bulk tooltips leave out lines, but every item still has at least its name.
+		assertTrue(buildTooltips(true) >= stacks.size());
+		assertTrue(buildTooltips(false) >= buildTooltips(true));
+
+		long normalTime = measure(false);
+		long bulkTime = measure(true);
+		System.out.printf("Bulk tooltips, items: %d, normal: %.2fms, bulk: %.2fms%n",
+				stacks.size(), normalTime / 1_000_000.0, bulkTime / 1_000_000.0);
+	}
+}
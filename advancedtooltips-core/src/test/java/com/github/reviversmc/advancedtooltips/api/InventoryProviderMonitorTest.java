@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryProviderMonitorTest {
+	private static final long HEALTHY_CALL = 1_000_000L;
+	private static final long STALLED_CALL = 200_000_000L;
+	private static final RuntimeException FAILURE = new IllegalStateException("Test failure");
+
+	@BeforeAll
+	static void bootstrap() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+	}
+
+	private static InventoryProviderMonitor monitor(boolean builtin) {
+		InventoryViewProvider provider = (stack, config) -> null;
+		return new InventoryProviderMonitor(provider, InventoryProviderMonitorTest.class, builtin);
+	}
+
+	private static void recordFailures(InventoryProviderMonitor monitor, int calls, long time) {
+		for (int i = 0; i < calls; i++) {
+			monitor.record(HEALTHY_CALL, FAILURE, time);
+		}
+	}
+
+	@Test
+	void tripsAfterConsecutiveFailures() {
+		var monitor = monitor(false);
+
+		recordFailures(monitor, 4, 1000);
+		assertTrue(monitor.isEnabled(1000));
+
+		recordFailures(monitor, 1, 1000);
+		assertFalse(monitor.isEnabled(1000));
+		assertFalse(monitor.isEnabled(1000 + 9_999));
+		assertTrue(monitor.isEnabled(1000 + 10_000));
+		assertEquals(5, monitor.getFailureCount());
+	}
+
+	@Test
+	void tripsAfterStalledCalls() {
+		var monitor = monitor(false);
+
+		for (int i = 0; i < 5; i++) {
+			monitor.record(STALLED_CALL, null, 1000);
+		}
+		assertFalse(monitor.isEnabled(1000));
+		assertEquals(0, monitor.getFailureCount());
+	}
+
+	@Test
+	void healthyCallResetsConsecutiveFailures() {
+		var monitor = monitor(false);
+
+		recordFailures(monitor, 4, 1000);
+		monitor.record(HEALTHY_CALL, null, 1000);
+		recordFailures(monitor, 4, 1000);
+		assertTrue(monitor.isEnabled(1000));
+	}
+
+	@Test
+	void backoffDoublesUntilHealthyCall() {
+		var monitor = monitor(false);
+		long time = 1000;
+
+		long[] expectedDisableTimes = {10_000, 20_000, 40_000, 80_000, 160_000, 300_000, 300_000};
+		for (long disableTime : expectedDisableTimes) {
+			recordFailures(monitor, 5, time);
+			assertFalse(monitor.isEnabled(time + disableTime - 1));
+			assertTrue(monitor.isEnabled(time + disableTime));
+			time += disableTime;
+		}
+
+		// The trial call succeeded, the next trip starts over from the minimum disable time.
+		monitor.record(HEALTHY_CALL, null, time);
+		recordFailures(monitor, 5, time);
+		assertFalse(monitor.isEnabled(time + 9_999));
+		assertTrue(monitor.isEnabled(time + 10_000));
+	}
+
+	@Test
+	void builtinProviderIsNeverDisabled() {
+		var monitor = monitor(true);
+
+		recordFailures(monitor, 20, 1000);
+		assertTrue(monitor.isEnabled(1000));
+		assertEquals(20, monitor.getFailureCount());
+	}
+
+	@Test
+	void failingCallsAreCaught() {
+		var monitor = new InventoryProviderMonitor((stack, config) -> {
+			throw FAILURE;
+		}, InventoryProviderMonitorTest.class, false);
+
+		assertNull(monitor.getInventoryView(new ItemStack(Items.SHULKER_BOX), null));
+		assertEquals(1, monitor.getCallCount());
+		assertEquals(1, monitor.getFailureCount());
+	}
+}
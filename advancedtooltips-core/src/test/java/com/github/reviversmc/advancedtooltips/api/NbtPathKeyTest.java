@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.api;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.BlockItem;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NbtPathKeyTest {
+	private static final String[] PATH = {BlockItem.BLOCK_ENTITY_TAG_KEY};
+
+	@BeforeAll
+	static void bootstrap() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+	}
+
+	private static ItemStack stackWithItems(String itemId) {
+		var stack = new ItemStack(Items.SHULKER_BOX);
+		var item = new NbtCompound();
+		item.putString("id", itemId);
+		item.putByte("Count", (byte) 1);
+		var items = new NbtList();
+		items.add(item);
+		stack.getOrCreateSubNbt(BlockItem.BLOCK_ENTITY_TAG_KEY).put("Items", items);
+		return stack;
+	}
+
+	@Test
+	void keysOnlyDependOnPath() {
+		var stack = stackWithItems("minecraft:stone");
+		var other = stackWithItems("minecraft:stone");
+		other.setCustomName(Text.literal("Renamed"));
+		other.setRepairCost(3);
+
+		assertEquals(NbtPathKey.of(stack, PATH), NbtPathKey.of(other, PATH));
+		assertEquals(NbtPathKey.of(stack, PATH).hashCode(), NbtPathKey.of(other, PATH).hashCode());
+	}
+
+	@Test
+	void keysDifferByDataAtPath() {
+		assertNotEquals(NbtPathKey.of(stackWithItems("minecraft:stone"), PATH), NbtPathKey.of(stackWithItems("minecraft:dirt"), PATH));
+	}
+
+	@Test
+	void keysDifferByItem() {
+		var stack = stackWithItems("minecraft:stone");
+		var chest = new ItemStack(Items.CHEST);
+		chest.setNbt(stack.getNbt().copy());
+
+		assertNotEquals(NbtPathKey.of(stack, PATH), NbtPathKey.of(chest, PATH));
+	}
+
+	@Test
+	void missingPathGivesNullElement() {
+		assertNull(NbtPathKey.of(new ItemStack(Items.SHULKER_BOX), PATH).element());
+
+		// A path going through an element which is not a compound is missing too.
+		var stack = new ItemStack(Items.SHULKER_BOX);
+		stack.getOrCreateNbt().put(BlockItem.BLOCK_ENTITY_TAG_KEY, NbtString.of("not a compound"));
+		assertNull(NbtPathKey.of(stack, new String[]{BlockItem.BLOCK_ENTITY_TAG_KEY, "Items"}).element());
+
+		assertEquals(NbtPathKey.of(new ItemStack(Items.SHULKER_BOX), PATH), new NbtPathKey(Items.SHULKER_BOX, null));
+	}
+
+	@Test
+	void copiedKeysDoNotShareStackData() {
+		var stack = stackWithItems("minecraft:stone");
+		var key = NbtPathKey.of(stack, PATH);
+		var copy = key.copy();
+		assertEquals(key, copy);
+
+		// The key built from the stack changes along with it, the copy does not.
+		stack.getSubNbt(BlockItem.BLOCK_ENTITY_TAG_KEY).putString("Lock", "secret");
+		assertNotEquals(copy, key);
+		assertEquals(NbtPathKey.of(stackWithItems("minecraft:stone"), PATH), copy);
+	}
+
+	@Test
+	void providerDeclaresPathKey() {
+		var provider = InventoryViewProvider.dependingOnNbt((stack, config) -> null, PATH);
+		var stack = stackWithItems("minecraft:stone");
+
+		assertEquals(NbtPathKey.of(stack, PATH), provider.getCacheKey(stack));
+	}
+}
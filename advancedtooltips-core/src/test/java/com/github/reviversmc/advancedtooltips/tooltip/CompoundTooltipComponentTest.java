@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.sun.management.ThreadMXBean;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.gui.tooltip.TooltipComponent;
+import net.minecraft.client.item.TooltipData;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.text.OrderedText;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompoundTooltipComponentTest {
+	private static final int WARMUP_CALLS = 20_000;
+	private static final int MEASURED_CALLS = 100_000;
+	/**
+	 * What a tooltip data build may still allocate per call, the callback objects of the injections and small lookup keys,
+	 * when they are not optimized away. A new compound alone, with its lists, data array and optional, is well over this.
+	 */
+	private static final long MAX_BUILD_BYTES_PER_CALL = 128;
+
+	private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	@BeforeAll
+	static void bootstrap() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+	}
+
+	private static long measureAllocatedBytes(Runnable call) {
+		Assumptions.assumeTrue(THREADS.isThreadAllocatedMemorySupported(), "Thread allocation counters are not supported.");
+		THREADS.setThreadAllocatedMemoryEnabled(true);
+
+		for (int i = 0; i < WARMUP_CALLS; i++) {
+			call.run();
+		}
+
+		long start = THREADS.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < MEASURED_CALLS; i++) {
+			call.run();
+		}
+		return THREADS.getCurrentThreadAllocatedBytes() - start;
+	}
+
+	@Test
+	void sameDataReusesCompound() {
+		ConvertibleTooltipData first = () -> TooltipComponent.of(OrderedText.EMPTY);
+		ConvertibleTooltipData second = () -> TooltipComponent.of(OrderedText.EMPTY);
+		var datas = List.<TooltipData>of(first, second);
+
+		var compound = CompoundTooltipComponent.of(datas);
+		assertSame(compound, CompoundTooltipComponent.of(List.of(first, second)));
+		assertSame(compound.toOptional(), CompoundTooltipComponent.of(datas).toOptional());
+		assertNotSame(compound, CompoundTooltipComponent.of(List.of(second, first)));
+	}
+
+	@Test
+	void pooledCompoundDoesNotAllocate() {
+		ConvertibleTooltipData first = () -> TooltipComponent.of(OrderedText.EMPTY);
+		ConvertibleTooltipData second = () -> TooltipComponent.of(OrderedText.EMPTY);
+		var datas = List.<TooltipData>of(first, second);
+
+		long bytes = measureAllocatedBytes(() -> CompoundTooltipComponent.of(datas));
+
+		assertTrue(bytes < MEASURED_CALLS, "Pooled compounds allocated " + bytes + " bytes over " + MEASURED_CALLS + " calls.");
+	}
+
+	@Test
+	void cachedItemTooltipDataAllocatesNearlyNothing() throws Throwable {
+		// Tooltip data is only extended on the render thread, a dedicated thread is made the render thread so other tests keep running off it.
+		var executor = Executors.newSingleThreadExecutor();
+		try {
+			executor.submit(() -> {
+				RenderSystem.initRenderThread();
+				assertCachedItemTooltipDataAllocatesNearlyNothing();
+			}).get();
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void assertCachedItemTooltipDataAllocatesNearlyNothing() {
+		// Food with effects gets a shared food component and a shared effects component, so it is built as a compound.
+		var stack = new ItemStack(Items.GOLDEN_APPLE);
+		var data = stack.getTooltipData();
+		assertTrue(data.isPresent());
+		assertInstanceOf(CompoundTooltipComponent.class, data.get());
+		assertSame(data, stack.getTooltipData());
+
+		long bytes = measureAllocatedBytes(stack::getTooltipData);
+
+		assertTrue(bytes / MEASURED_CALLS <= MAX_BUILD_BYTES_PER_CALL,
+				"Tooltip data of a cached item allocated " + bytes / MEASURED_CALLS + " bytes per call.");
+	}
+}
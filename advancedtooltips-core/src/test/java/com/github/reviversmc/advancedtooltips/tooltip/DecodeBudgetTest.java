@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtInt;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.util.Util;
+import net.minecraft.util.collection.DefaultedList;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodeBudgetTest {
+	/**
+	 * A single node estimated at about 200 KiB, two of them go over the byte limit without taking any noticeable time to walk.
+	 */
+	private static final NbtString LARGE_STRING = NbtString.of("a".repeat(100 * 1024));
+
+	@BeforeAll
+	static void bootstrap() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+	}
+
+	@Test
+	void smallDataIsDecoded() {
+		var nbt = new NbtCompound();
+		nbt.putString("id", "minecraft:stone");
+		nbt.putInt("Count", 1);
+
+		assertTrue(DecodeBudget.tryDecode(nbt));
+		assertTrue(DecodeBudget.tryDecode(null));
+	}
+
+	@Test
+	void tooManyNodesAreRejected() {
+		var list = new NbtList();
+		for (int i = 0; i < 20000; i++) {
+			list.add(NbtInt.of(i));
+		}
+
+		assertFalse(DecodeBudget.tryDecode(list));
+		// Outside of a tooltip nothing is truncated.
+		assertFalse(DecodeBudget.isExceeded());
+	}
+
+	@Test
+	void tooManyBytesAreRejected() {
+		assertFalse(DecodeBudget.tryDecode(NbtString.of("a".repeat(200 * 1024))));
+	}
+
+	@Test
+	void decodesOutsideOfTooltipsAreCheckedOnTheirOwn() {
+		assertTrue(DecodeBudget.tryDecode(LARGE_STRING));
+		assertTrue(DecodeBudget.tryDecode(LARGE_STRING));
+	}
+
+	@Test
+	void budgetIsSharedWithinTooltip() {
+		DecodeBudget.begin(new ItemStack(Items.SHULKER_BOX));
+		try {
+			assertTrue(DecodeBudget.tryDecode(LARGE_STRING));
+			assertFalse(DecodeBudget.isExceeded());
+			assertNull(DecodeBudget.getWarning());
+
+			assertFalse(DecodeBudget.tryDecode(LARGE_STRING));
+			assertTrue(DecodeBudget.isExceeded());
+			assertNotNull(DecodeBudget.getWarning());
+
+			// Once exceeded, even small data is no longer decoded.
+			assertFalse(DecodeBudget.tryDecode(new NbtCompound()));
+		} finally {
+			DecodeBudget.end();
+		}
+
+		assertFalse(DecodeBudget.isExceeded());
+		assertNull(DecodeBudget.getWarning());
+	}
+
+	@Test
+	void nextTooltipStartsWithFullBudget() {
+		var stack = new ItemStack(Items.SHULKER_BOX);
+		DecodeBudget.begin(stack);
+		try {
+			DecodeBudget.tryDecode(LARGE_STRING);
+			DecodeBudget.tryDecode(LARGE_STRING);
+			assertTrue(DecodeBudget.isExceeded());
+		} finally {
+			DecodeBudget.end();
+		}
+
+		DecodeBudget.begin(stack);
+		try {
+			assertTrue(DecodeBudget.tryDecode(LARGE_STRING));
+			assertFalse(DecodeBudget.isExceeded());
+		} finally {
+			DecodeBudget.end();
+		}
+	}
+
+	@Test
+	void onlyOutermostTooltipGetsWarning() {
+		DecodeBudget.begin(new ItemStack(Items.SHULKER_BOX));
+		try {
+			DecodeBudget.begin(new ItemStack(Items.CHEST));
+			try {
+				DecodeBudget.tryDecode(LARGE_STRING);
+				assertFalse(DecodeBudget.tryDecode(LARGE_STRING));
+				assertTrue(DecodeBudget.isExceeded());
+				assertNull(DecodeBudget.getWarning());
+			} finally {
+				DecodeBudget.end();
+			}
+
+			assertTrue(DecodeBudget.isExceeded());
+			assertNotNull(DecodeBudget.getWarning());
+		} finally {
+			DecodeBudget.end();
+		}
+	}
+
+	@Test
+	void readInventoryStopsAtFirstItemOverBudget() {
+		var items = new NbtList();
+		for (int slot = 0; slot < 3; slot++) {
+			var itemNbt = new ItemStack(Items.PAPER).writeNbt(new NbtCompound());
+			itemNbt.putByte("Slot", (byte) slot);
+			if (slot != 0)
+				itemNbt.put("tag", Util.make(new NbtCompound(), tag -> tag.put("Large", LARGE_STRING)));
+			items.add(itemNbt);
+		}
+		var nbt = new NbtCompound();
+		nbt.put("Items", items);
+
+		var inventory = DefaultedList.ofSize(27, ItemStack.EMPTY);
+		DecodeBudget.begin(new ItemStack(Items.SHULKER_BOX));
+		try {
+			DecodeBudget.readInventory(nbt, inventory);
+		} finally {
+			DecodeBudget.end();
+		}
+
+		assertEquals(Items.PAPER, inventory.get(0).getItem());
+		assertEquals(Items.PAPER, inventory.get(1).getItem());
+		assertTrue(inventory.get(2).isEmpty());
+	}
+}
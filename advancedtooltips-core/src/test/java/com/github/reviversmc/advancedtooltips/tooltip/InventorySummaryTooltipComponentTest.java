@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventorySummaryTooltipComponentTest {
+	@Test
+	void selectsMostCommonItemsInOrder() {
+		var counts = new Int2LongOpenHashMap();
+		for (int id = 0; id < 40; id++) {
+			// Distinct counts which are not in identifier order.
+			counts.put(id, (id * 17L) % 40 + 1);
+		}
+
+		var top = InventorySummaryTooltipComponent.selectTop(counts, 9);
+
+		var expected = counts.int2LongEntrySet().stream()
+				.sorted((a, b) -> Long.compare(b.getLongValue(), a.getLongValue()))
+				.limit(9)
+				.mapToInt(entry -> entry.getIntKey())
+				.toArray();
+		assertArrayEquals(expected, top);
+	}
+
+	@Test
+	void selectsEveryItemOfSmallInventories() {
+		var counts = new Int2LongOpenHashMap();
+		counts.put(3, 5);
+		counts.put(7, 64);
+		counts.put(1, 12);
+
+		assertArrayEquals(new int[]{7, 1, 3}, InventorySummaryTooltipComponent.selectTop(counts, 9));
+	}
+
+	@Test
+	void selectsLargestCountsWithTies() {
+		var random = new Random(42);
+		for (int round = 0; round < 100; round++) {
+			var counts = new Int2LongOpenHashMap();
+			int size = 1 + random.nextInt(100);
+			for (int id = 0; id < size; id++) {
+				counts.put(id, 1 + random.nextInt(8));
+			}
+
+			var top = InventorySummaryTooltipComponent.selectTop(counts, 9);
+
+			var expected = counts.values().toLongArray();
+			Arrays.sort(expected);
+			assertEquals(Math.min(9, size), top.length);
+			assertEquals(top.length, Arrays.stream(top).distinct().count());
+			for (int i = 0; i < top.length; i++) {
+				// Items with the same count may be selected in any order, but the selected counts must be the largest ones.
+				assertEquals(expected[expected.length - 1 - i], counts.get(top[i]));
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import com.github.reviversmc.advancedtooltips.AdvancedTooltips;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TooltipFrameBudgetTest {
+	private static final int BUDGET = 4;
+	private static final long OVER_BUDGET = 10_000_000L;
+	private static final long UNDER_HALF_BUDGET = 1_000_000L;
+	private static final long UNDER_BUDGET = 3_000_000L;
+
+	private long time;
+
+	@BeforeAll
+	static void bootstrap() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+	}
+
+	@BeforeEach
+	void reset() {
+		AdvancedTooltips.getConfig().setFrameBudget(BUDGET);
+		TooltipFrameBudget.reset();
+		this.time = 100_000;
+	}
+
+	@AfterEach
+	void restore() {
+		AdvancedTooltips.getConfig().setFrameBudget(BUDGET);
+		TooltipFrameBudget.reset();
+	}
+
+	private void draw(long cost, long elapsed) {
+		this.time += elapsed;
+		TooltipFrameBudget.update(cost, this.time);
+	}
+
+	@Test
+	void stepsDownOneLevelAtATime() {
+		this.draw(OVER_BUDGET, 0);
+		assertEquals(TooltipFrameBudget.Level.STATIC_ENTITIES, TooltipFrameBudget.getLevel());
+		assertFalse(TooltipFrameBudget.allowsSpin());
+
+		// Steps down are spaced, so a single slow frame does not drop every level at once.
+		this.draw(OVER_BUDGET, 100);
+		assertEquals(TooltipFrameBudget.Level.STATIC_ENTITIES, TooltipFrameBudget.getLevel());
+
+		this.draw(OVER_BUDGET, 150);
+		assertEquals(TooltipFrameBudget.Level.FAST_MODES, TooltipFrameBudget.getLevel());
+
+		this.draw(OVER_BUDGET, 250);
+		assertEquals(TooltipFrameBudget.Level.COMPACT_INVENTORIES, TooltipFrameBudget.getLevel());
+		assertTrue(TooltipFrameBudget.forcesCompact());
+
+		this.draw(OVER_BUDGET, 250);
+		assertEquals(TooltipFrameBudget.Level.COMPACT_INVENTORIES, TooltipFrameBudget.getLevel());
+	}
+
+	@Test
+	void staysWithinHysteresisBand() {
+		this.draw(OVER_BUDGET, 0);
+		assertEquals(TooltipFrameBudget.Level.STATIC_ENTITIES, TooltipFrameBudget.getLevel());
+
+		// Under the budget but over half of it, the level neither steps down nor up.
+		for (int i = 0; i < 20; i++) {
+			this.draw(UNDER_BUDGET, 1000);
+		}
+		assertEquals(TooltipFrameBudget.Level.STATIC_ENTITIES, TooltipFrameBudget.getLevel());
+	}
+
+	@Test
+	void stepsUpAfterDelay() {
+		this.draw(OVER_BUDGET, 0);
+
+		this.draw(UNDER_HALF_BUDGET, 1000);
+		assertEquals(TooltipFrameBudget.Level.STATIC_ENTITIES, TooltipFrameBudget.getLevel());
+
+		this.draw(UNDER_HALF_BUDGET, 1000);
+		assertEquals(TooltipFrameBudget.Level.FULL, TooltipFrameBudget.getLevel());
+		assertTrue(TooltipFrameBudget.allowsSpin());
+	}
+
+	@Test
+	void revertedStepUpDoublesDelay() {
+		this.draw(OVER_BUDGET, 0);
+		this.draw(UNDER_HALF_BUDGET, 2000);
+		assertEquals(TooltipFrameBudget.Level.FULL, TooltipFrameBudget.getLevel());
+
+		// The step up did not hold.
+		this.draw(OVER_BUDGET, 300);
+		assertEquals(TooltipFrameBudget.Level.STATIC_ENTITIES, TooltipFrameBudget.getLevel());
+
+		this.draw(UNDER_HALF_BUDGET, 2000);
+		assertEquals(TooltipFrameBudget.Level.STATIC_ENTITIES, TooltipFrameBudget.getLevel());
+
+		this.draw(UNDER_HALF_BUDGET, 2000);
+		assertEquals(TooltipFrameBudget.Level.FULL, TooltipFrameBudget.getLevel());
+
+		// Reverted again, the delay keeps growing.
+		this.draw(OVER_BUDGET, 300);
+		this.draw(UNDER_HALF_BUDGET, 4000);
+		assertEquals(TooltipFrameBudget.Level.STATIC_ENTITIES, TooltipFrameBudget.getLevel());
+		this.draw(UNDER_HALF_BUDGET, 4000);
+		assertEquals(TooltipFrameBudget.Level.FULL, TooltipFrameBudget.getLevel());
+	}
+
+	@Test
+	void heldStepUpRestoresDelay() {
+		this.draw(OVER_BUDGET, 0);
+		this.draw(UNDER_HALF_BUDGET, 2000);
+		this.draw(OVER_BUDGET, 300);
+		this.draw(UNDER_HALF_BUDGET, 4000);
+		assertEquals(TooltipFrameBudget.Level.FULL, TooltipFrameBudget.getLevel());
+
+		// A step down long after the last step up does not count as a reverted step up.
+		this.draw(OVER_BUDGET, 60_000);
+		assertEquals(TooltipFrameBudget.Level.STATIC_ENTITIES, TooltipFrameBudget.getLevel());
+		this.draw(UNDER_HALF_BUDGET, 40_000);
+		assertEquals(TooltipFrameBudget.Level.FULL, TooltipFrameBudget.getLevel());
+
+		this.draw(OVER_BUDGET, 60_000);
+		this.draw(UNDER_HALF_BUDGET, 2000);
+		assertEquals(TooltipFrameBudget.Level.FULL, TooltipFrameBudget.getLevel());
+	}
+
+	@Test
+	void disabledBudgetKeepsFullLevel() {
+		this.draw(OVER_BUDGET, 0);
+		assertEquals(TooltipFrameBudget.Level.STATIC_ENTITIES, TooltipFrameBudget.getLevel());
+
+		AdvancedTooltips.getConfig().setFrameBudget(0);
+		this.draw(OVER_BUDGET, 1000);
+		assertEquals(TooltipFrameBudget.Level.FULL, TooltipFrameBudget.getLevel());
+	}
+}
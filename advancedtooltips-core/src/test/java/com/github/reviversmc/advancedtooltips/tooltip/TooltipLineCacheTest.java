@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2020 - 2022 LambdAurora <email@lambdaurora.dev>, Emi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.reviversmc.advancedtooltips.tooltip;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.dynamic.GlobalPos;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TooltipLineCacheTest {
+	private static final GlobalPos LODESTONE = GlobalPos.create(World.OVERWORLD, new BlockPos(12, 64, -7));
+
+	@BeforeAll
+	static void bootstrap() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+	}
+
+	@Test
+	void repairCostLinesAreCopies() {
+		var first = TooltipLineCache.getRepairCostLine(5);
+		var second = TooltipLineCache.getRepairCostLine(5);
+
+		assertNotSame(first, second);
+		assertEquals(first, second);
+		assertEquals(Text.translatable("advancedtooltips.tooltip.repair_cost", 5).formatted(Formatting.GRAY), first);
+	}
+
+	@Test
+	void modifiedRepairCostLineDoesNotLeak() {
+		var expected = TooltipLineCache.getRepairCostLine(7);
+
+		var line = (MutableText) TooltipLineCache.getRepairCostLine(7);
+		line.append(" (modified)").formatted(Formatting.RED);
+
+		assertEquals(expected, TooltipLineCache.getRepairCostLine(7));
+	}
+
+	@Test
+	void lodestoneLinesAreCopies() {
+		var first = new ArrayList<Text>();
+		TooltipLineCache.appendLodestoneLines(first, LODESTONE);
+		var second = new ArrayList<Text>();
+		TooltipLineCache.appendLodestoneLines(second, LODESTONE);
+
+		assertEquals(2, first.size());
+		assertEquals(first, second);
+		for (int i = 0; i < first.size(); i++) {
+			assertNotSame(first.get(i), second.get(i));
+		}
+	}
+
+	@Test
+	void modifiedLodestoneLinesDoNotLeak() {
+		var expected = new ArrayList<Text>();
+		TooltipLineCache.appendLodestoneLines(expected, LODESTONE);
+
+		var tooltip = new ArrayList<Text>();
+		TooltipLineCache.appendLodestoneLines(tooltip, LODESTONE);
+		for (var line : tooltip) {
+			((MutableText) line).append(" (modified)").formatted(Formatting.RED);
+		}
+
+		var again = new ArrayList<Text>();
+		TooltipLineCache.appendLodestoneLines(again, LODESTONE);
+		assertEquals(expected, again);
+	}
+
+	@Test
+	void linesAreBuiltAgainOnceCleared() {
+		var before = TooltipLineCache.getRepairCostLine(9);
+		TooltipLineCache.clear();
+
+		assertEquals(before, TooltipLineCache.getRepairCostLine(9));
+	}
+}